@@ -0,0 +1,228 @@
+package crosswordPuzzle.algorithm;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import crosswordPuzzle.core.*;
+
+/**
+ * JMH benchmarks of the generation hot paths
+ *
+ * run with `gradle jmh`, which adds the GC profiler (-prof gc); JMH options go in -PjmhArgs, e.g.
+ * -PjmhArgs="generatePlacements -p words=200"
+ *
+ * every word count gets a seeded synthetic word list and a layout of it built once per fork;
+ * the last tenth of the placed words is taken off again to give a grid in the middle of a search,
+ * and those words are the ones placements are generated and checked for
+ *
+ * benchmarks:
+ *  - generatePlacements: placementEvaluator.generatePlacements for the removed words
+ *  - isValidPlacement: a mix of candidate and random placements
+ *  - placeRemove: Grid.wordPlacer followed by Grid.removeWord
+ *  - copyState: copy of the grid and placed words, the baseline of the two benchmarks below
+ *  - expandToFit: copyState + growing the grid for a placement beyond its top left corner
+ *  - trimSync: copyState + Grid.trimGrid moving the placed words, on an untrimmed grid
+ *  - placeWordsBacktracking: the whole search from the anchor, seeded
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class generationBenchmarks {
+
+    private static final long SEED = 42;
+
+    // search budget for every layout, so a word list the search cannot finish still gives a result
+    private static final long TIME_LIMIT_MILLIS = 30_000;
+
+    @Param({"10", "50", "200", "1000"})
+    public int words;
+
+    private Fixture s;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        s = new Fixture(words);
+    }
+
+    @Benchmark
+    public void generatePlacements(Blackhole bh) {
+        bh.consume(s.generatePlacements());
+    }
+
+    @Benchmark
+    public void isValidPlacement(Blackhole bh) {
+        bh.consume(s.isValidPlacement());
+    }
+
+    @Benchmark
+    public void placeRemove(Blackhole bh) {
+        bh.consume(s.placeRemove());
+    }
+
+    @Benchmark
+    public void copyState(Blackhole bh) {
+        bh.consume(s.copyState());
+    }
+
+    @Benchmark
+    public void expandToFit(Blackhole bh) {
+        bh.consume(s.expandToFit());
+    }
+
+    @Benchmark
+    public void trimSync(Blackhole bh) {
+        bh.consume(s.trimSync());
+    }
+
+    @Benchmark
+    public void placeWordsBacktracking(Blackhole bh) {
+        bh.consume(s.placeWordsBacktracking());
+    }
+
+    /**
+     * seeded synthetic word list: 3 to 10 letters drawn with roughly English letter frequencies
+     *
+     * @param n - number of words
+     * @param seed - generator seed
+     */
+    static ArrayList<wordKeeper> syntheticWords(int n, long seed) {
+        String letters = "EEEEEEAAAAIIIOOOOTTTNNNSSSRRRHHLLDDCCUUMMFPGWYBVK";
+        Random rnd = new Random(seed);
+        HashSet<String> seen = new HashSet<>();
+        ArrayList<wordKeeper> words = new ArrayList<>();
+        while (words.size() < n) {
+            StringBuilder sb = new StringBuilder();
+            int len = 3 + rnd.nextInt(8);
+            for (int i = 0; i < len; i++) sb.append(letters.charAt(rnd.nextInt(letters.length())));
+            if (seen.add(sb.toString())) words.add(new wordKeeper(sb.toString(), words.size() + 1, "clue"));
+        }
+        return words;
+    }
+
+    /**
+     * word list, layouts and probe data of one word count
+     */
+    private static class Fixture {
+        final ArrayList<wordKeeper> words;
+
+        // grid with the last tenth of the placed words taken off, and those words
+        final Grid midGrid;
+        final ArrayList<wordKeeper> probeWords = new ArrayList<>();
+        final ArrayList<placedWord> probePlacements = new ArrayList<>();
+        final ArrayList<placedWord> candidates = new ArrayList<>();
+
+        // the full layout before trimming
+        final Grid untrimmedGrid;
+        final ArrayList<placedWord> untrimmedWords = new ArrayList<>();
+
+        int next;
+
+        Fixture(int n) {
+            words = syntheticWords(n, SEED);
+
+            // full layout, trimmed by the search
+            ArrayList<placedWord> placed = new ArrayList<>();
+            wordKeeper anchor = anchorSelector.findAnchor(words);
+            Grid laidOut = generateNewPuzzle.startGrid(anchor, placed);
+            ArrayList<wordKeeper> unused = new ArrayList<>(words);
+            unused.remove(anchor);
+            backtrack.placeWords(unused, placed, laidOut, options());
+
+            // replayed onto a small grid, so the grid grows like during a search and is left untrimmed
+            untrimmedGrid = new Grid(15, 15);
+            for (placedWord pw : placed) {
+                placedWord copy = new placedWord(pw.word, pw.row, pw.col, pw.isVertical);
+                untrimmedGrid.wordPlacer(copy);
+                untrimmedWords.add(copy);
+            }
+
+            int keep = Math.max(1, placed.size() - Math.max(1, placed.size() / 10));
+            midGrid = new Grid(untrimmedGrid);
+            for (int i = placed.size() - 1; i >= keep; i--) {
+                midGrid.removeWord(untrimmedWords.get(i));
+                probeWords.add(untrimmedWords.get(i).word);
+                probePlacements.add(untrimmedWords.get(i));
+            }
+
+            // candidates of the probe words plus as many random, mostly invalid placements
+            Random rnd = new Random(SEED);
+            for (wordKeeper w : probeWords) {
+                placementBuffer buf = placementEvaluator.generatePlacements(w, midGrid);
+                for (int i = 0; i < buf.size(); i++) candidates.add(buf.toPlacedWord(w, i));
+            }
+            int valid = candidates.size();
+            for (int i = 0; i < Math.max(valid, 16); i++) {
+                wordKeeper w = probeWords.get(rnd.nextInt(probeWords.size()));
+                candidates.add(new placedWord(w, midGrid.getFirstRow() + rnd.nextInt(midGrid.getRows()),
+                        midGrid.getFirstCol() + rnd.nextInt(midGrid.getCols()), rnd.nextBoolean()));
+            }
+        }
+
+        private int next(int bound) {
+            if (++next >= bound) next = 0;
+            return next;
+        }
+
+        long generatePlacements() {
+            return placementEvaluator.generatePlacements(probeWords.get(next(probeWords.size())), midGrid).size();
+        }
+
+        long isValidPlacement() {
+            return placementEvaluator.isValidPlacement(candidates.get(next(candidates.size())), midGrid) ? 1 : 0;
+        }
+
+        long placeRemove() {
+            placedWord pw = probePlacements.get(next(probePlacements.size()));
+            midGrid.wordPlacer(pw);
+            midGrid.removeWord(pw);
+            return midGrid.getFilledCells();
+        }
+
+        long copyState() {
+            Grid g = new Grid(untrimmedGrid);
+            return g.getFilledCells() + copyWords().size();
+        }
+
+        long expandToFit() {
+            Grid g = new Grid(untrimmedGrid);
+            copyWords();
+            g.expandToFit(new placedWord(words.get(0), g.getFirstRow() - 3, g.getFirstCol() - 3, true));
+            return g.getRows();
+        }
+
+        long trimSync() {
+            Grid g = new Grid(untrimmedGrid);
+            ArrayList<placedWord> placed = copyWords();
+            g.trimGrid(placed);
+            return g.getRows() + placed.get(0).row;
+        }
+
+        long placeWordsBacktracking() {
+            ArrayList<placedWord> placed = new ArrayList<>();
+            wordKeeper anchor = anchorSelector.findAnchor(words);
+            Grid grid = generateNewPuzzle.startGrid(anchor, placed);
+            ArrayList<wordKeeper> unused = new ArrayList<>(words);
+            unused.remove(anchor);
+            backtrack.placeWordsBacktracking(unused, placed, grid, options());
+            return placed.size();
+        }
+
+        private static searchOptions options() {
+            searchOptions options = new searchOptions(1, SEED);
+            options.timeLimitMillis = TIME_LIMIT_MILLIS;
+            return options;
+        }
+
+        private ArrayList<placedWord> copyWords() {
+            ArrayList<placedWord> copy = new ArrayList<>(untrimmedWords.size());
+            for (placedWord pw : untrimmedWords) copy.add(new placedWord(pw.word, pw.row, pw.col, pw.isVertical));
+            return copy;
+        }
+    }
+}
@@ -15,6 +15,29 @@ import crosswordPuzzle.core.*;
 
 public class anchorSelector {
 
+    /**
+     * how the anchor word is chosen
+     *  - LETTER_FREQUENCY: highest summed letter frequency, then longer word (the default)
+     *  - LONGEST: longest word, first in list order on a tie
+     *  - MOST_CONNECTED: shares a letter with the most other words, then longer word
+     */
+    public enum Strategy { LETTER_FREQUENCY, LONGEST, MOST_CONNECTED }
+
+    /**
+     * method to find anchor word from list of wordKeeper objects using the given strategy
+     * 
+     * @param listOfW - list of wordKeeper objects
+     * @param strategy - see Strategy
+     * @return the wordKeeper object selected as anchor word
+     */
+    static wordKeeper findAnchor(ArrayList<wordKeeper> listOfW, Strategy strategy) {
+        switch (strategy) {
+            case LONGEST: return findLongest(listOfW);
+            case MOST_CONNECTED: return findMostConnected(listOfW);
+            default: return findAnchor(listOfW);
+        }
+    }
+
     /**
      * method to find anchor word from list of wordKeeper objects
      * 
@@ -22,17 +45,12 @@ public class anchorSelector {
      * @return the wordKeeper object selected as anchor word
      */
     static wordKeeper findAnchor(ArrayList<wordKeeper> listOfW) {
-        // Create a frequency map to count occurrences of each letter
-        // Key: Character, Value: Integer (Frequency)
-        Map<Character, Integer> letterFrequency = new HashMap<>();
-
         // Count letter frequencies across all words
+        // letterFrequency[l] = occurrences of letter 'A' + l, summed from each word's letter counts
+        int[] letterFrequency = new int[26];
         for (wordKeeper w : listOfW) {
-            for (char ch : w.letters) {
-                letterFrequency.put(ch, letterFrequency.getOrDefault(ch, 0) + 1);
-                // getOrDefault searches for a letter (ch) in the map and returns its accompanying value
-                // if a letter is not found, it returns a default value which is 0 in this case
-                // + 1 always to count occurences of each char 
+            for (int l = 0; l < 26; l++) {
+                letterFrequency[l] += w.letterCounts[l];
             }
         }
 
@@ -44,8 +62,8 @@ public class anchorSelector {
             int score = 0;
 
             // Tallies all letter frequences fo each word
-            for (char ch : w.letters) {
-                score += letterFrequency.get(ch);
+            for (byte code : w.codes) {
+                if (code >= 0) score += letterFrequency[code];
             }
 
             // checks and updates wordKeeper best with the word with higher score
@@ -58,4 +76,32 @@ public class anchorSelector {
         return best;
 
     }
+
+    // longest word, first one wins a tie
+    private static wordKeeper findLongest(ArrayList<wordKeeper> listOfW) {
+        wordKeeper best = null;
+        for (wordKeeper w : listOfW) {
+            if (best == null || w.word.length() > best.word.length()) best = w;
+        }
+        return best;
+    }
+
+    // word that shares at least one letter with the most other words, if tie, longer word
+    // the counts come from the crossing graph of the list, see crossingGraph
+    private static wordKeeper findMostConnected(ArrayList<wordKeeper> listOfW) {
+        crossingGraph graph = new crossingGraph(listOfW);
+        wordKeeper best = null;
+        int bestScore = -1;
+
+        for (int i = 0; i < listOfW.size(); i++) {
+            wordKeeper w = listOfW.get(i);
+            int score = graph.degree(i);
+
+            if (score > bestScore || (score == bestScore && w.word.length() > best.word.length())) {
+                best = w;
+                bestScore = score;
+            }
+        }
+        return best;
+    }
 }
@@ -1,59 +1,130 @@
 package crosswordPuzzle.algorithm;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Random;
+import java.util.Set;
 import crosswordPuzzle.core.*;
 /**
  * implements the backtracking algorithm to place words on the grid
- * 
+ *
  * algorithm:
  *  - calls nextWordSelector to select the next word to place
  *  - calls placementEvaluator to generate possible placements for the selected word
- *  - attempts each possible placement recursively
+ *  - attempts each possible placement depth first, see `searchEngine`
  *  - backtracks if a placement leads to a dead end
  */
 public class backtrack {
-    
-    /** 
-     * Recursively places words on the crossword grid
-     * 
+
+    /**
+     * places words on the crossword grid
+     *
      * @param unusedWords - list of words yet to be placed
      * @param placedWordList - list of words already placed
      * @param grid - current state of the grid
      * @return true if all words are placed successfully, false otherwise
      */
     public static boolean placeWordsBacktracking (
-        ArrayList<wordKeeper> unusedWords, 
-        ArrayList<placedWord> placedWordList, 
+        ArrayList<wordKeeper> unusedWords,
+        ArrayList<placedWord> placedWordList,
         Grid grid ) {
-            
-            if (unusedWords.isEmpty()) {
-                grid.trimGrid();
-                grid.syncPlacedWords(placedWordList);
-                return true;
-            }
+            return placeWordsBacktracking(unusedWords, placedWordList, grid, new searchOptions());
+        }
 
-            // select next word to place
-            wordKeeper nextWord = nextWordSelector.selectNextWord(unusedWords, grid);
-
-            // generate list of possible placements for the selected word 
-            ArrayList<placedWord> possiblePlacements = placementEvaluator.generatePlacements(nextWord, grid);
-            
-            // tries each possible placement for the current selected word
-            for (placedWord pw : possiblePlacements) {
-                grid.wordPlacer(pw, placedWordList);
-                placedWordList.add(pw);
-                unusedWords.remove(nextWord);
-
-                // recursive call
-                if (placeWordsBacktracking(unusedWords, placedWordList, grid)) return true;
-
-                // removes word placement 
-                grid.removeWord(pw, placedWordList);
-                placedWordList.remove(pw);
-                unusedWords.add(nextWord);
+    /**
+     * places words on the crossword grid with the given search settings
+     * 
+     * @param unusedWords - list of words yet to be placed
+     * @param placedWordList - list of words already placed
+     * @param grid - current state of the grid
+     * @param options - search settings
+     * @return true if all words are placed successfully, false otherwise
+     */
+    public static boolean placeWordsBacktracking (
+        ArrayList<wordKeeper> unusedWords,
+        ArrayList<placedWord> placedWordList,
+        Grid grid,
+        searchOptions options ) {
+            return placeWords(unusedWords, placedWordList, grid, options).solved();
+        }
+
+    /**
+     * places words on the crossword grid within the time and node budgets of the given settings
+     * with more than one thread the search runs on a fork-join pool, see `parallelBacktrack`
+     * 
+     * afterwards the grid and lists hold the full layout if every word was placed, otherwise the best
+     * partial layout found (most words placed, then densest grid); either way the grid is trimmed and
+     * the placed words moved with it, and unusedWords holds the words that could not be placed
+     *
+     * @param unusedWords - list of words yet to be placed
+     * @param placedWordList - list of words already placed
+     * @param grid - current state of the grid
+     * @param options - search settings
+     * @return how the search ended, with the unplaced words
+     */
+    public static searchResult placeWords (
+        ArrayList<wordKeeper> unusedWords,
+        ArrayList<placedWord> placedWordList,
+        Grid grid,
+        searchOptions options ) {
+
+            searchRun run = new searchRun(options);
+            boolean success;
+
+            if (options.threads > 1) {
+                ArrayList<placedWord> winner = parallelBacktrack.search(unusedWords, placedWordList, grid, run);
+                success = winner != null;
+                if (success) replay(winner, unusedWords, placedWordList, grid);
+            } else {
+                success = new searchEngine(unusedWords, placedWordList, grid, run, () -> false).search();
+                if (success) unusedWords.clear();
             }
-            // signal failure to caller and trigger backtracking
-            return false;
 
+            if (options.metrics != null) options.metrics.searchDone();
+
+            // a failed search has undone all its placements, so the best partial layout is replayed from scratch
+            if (!success) replay(run.bestLayout(), unusedWords, placedWordList, grid);
+
+            grid.trimGrid(placedWordList);
+
+            searchResult.Status status = success ? searchResult.Status.SOLVED : run.stopReason();
+            return new searchResult(status, new ArrayList<>(unusedWords), run.nodes(), run.millis());
+        }
+
+    // places the words of a layout that are not yet on the grid, coordinates are stable so they apply as they are
+    private static void replay(ArrayList<placedWord> layout, ArrayList<wordKeeper> unusedWords,
+                               ArrayList<placedWord> placedWordList, Grid grid) {
+        Set<wordKeeper> replayed = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (int i = placedWordList.size(); i < layout.size(); i++) {
+            placedWord pw = layout.get(i);
+            grid.wordPlacer(pw);
+            placedWordList.add(pw);
+            replayed.add(pw.word);
+        }
+        unusedWords.removeIf(replayed::contains);
+    }
+
+    /**
+     * generates the candidate placements for a word in the order the search tries them
+     * with shuffleTies set, equal-score candidates are shuffled by a generator seeded from the search seed,
+     * the word and the depth, so the order is the same wherever and whenever the node is expanded
+     *
+     * @param w - word to place
+     * @param grid - current state of the grid
+     * @param depth - number of words already placed
+     * @param options - search settings
+     * @param candidates - buffer the candidates are written to, cleared first
+     * @param metrics - counts the candidates and rejections, null when metrics are off
+     * @return the given buffer
+     */
+    static placementBuffer orderedPlacements(wordKeeper w, Grid grid, int depth, searchOptions options,
+                                             placementBuffer candidates, searchMetrics.Recorder metrics) {
+        placementEvaluator.generateCrossingPlacements(w, grid, candidates, metrics);
+        if (metrics != null) metrics.candidates += candidates.size();
+        if (options.shuffleTies) {
+            candidates.shuffleTies(new Random(options.seed * 1_000_003L + (long) w.id * 8_191L + depth));
         }
+        return candidates;
+    }
 }
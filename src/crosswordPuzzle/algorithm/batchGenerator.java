@@ -0,0 +1,312 @@
+package crosswordPuzzle.algorithm;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import crosswordPuzzle.core.*;
+import crosswordPuzzle.io.*;
+
+/**
+ * generates puzzles in bulk from spec files, without any console input
+ *
+ * usage: batchGenerator <file-or-directory> [threads] [seconds per puzzle] [portfolio strategies]
+ *
+ * what it does:
+ *  - reads puzzle specs (title plus word/clue pairs) with puzzleSpecReader, from .csv or .jsonl files
+ *  - checks each word list like interactive input and lays it out with the usual anchor and backtracking search,
+ *    or, given a number of portfolio strategies, races that many portfolioSolver strategies per puzzle
+ *  - saves every solved puzzle through puzzleManager; a spec whose title is saved under the same key as an
+ *    earlier spec's (e.g. "A B" and "A_B") is rejected instead of overwriting it
+ *  - prints throughput, failures and per-puzzle latency at the end, and for portfolio runs which strategy
+ *    won each puzzle and which ran out of time
+ *
+ * puzzles run on a fixed pool of worker threads; the pool's queue is bounded and, once it is full, the
+ * submitting thread runs the next puzzle itself, so the queue never holds more than a few puzzles per worker
+ */
+public class batchGenerator {
+
+    // search budget per puzzle unless given on the command line, same as interactive generation
+    private static final long DEFAULT_TIME_LIMIT_MILLIS = 60_000;
+
+    // queued puzzles per worker
+    private static final int QUEUE_PER_THREAD = 4;
+
+    /**
+     * what happened to one spec
+     * status is null when the spec was rejected before the search, error is null only for a saved puzzle
+     */
+    public static class Result {
+        public final String title;
+        public final String source;
+        public final searchResult.Status status;
+        public final long millis;
+        public final String error;
+
+        // portfolio runs only: the winning strategy (null if none won) and the strategies that ran out of time
+        public final String strategy;
+        public final ArrayList<String> outOfTime;
+
+        Result(String title, String source, searchResult.Status status, long millis, String error) {
+            this(title, source, status, millis, error, null, null);
+        }
+
+        Result(String title, String source, searchResult.Status status, long millis, String error,
+               String strategy, ArrayList<String> outOfTime) {
+            this.title = title;
+            this.source = source;
+            this.status = status;
+            this.millis = millis;
+            this.error = error;
+            this.strategy = strategy;
+            this.outOfTime = outOfTime;
+        }
+
+        // true if every word was placed and the puzzle saved
+        public boolean saved() {
+            return status == searchResult.Status.SOLVED && error == null;
+        }
+    }
+
+    public static void main(String[] args) {
+        if (args.length < 1 || args.length > 4) {
+            System.out.println("Usage: batchGenerator <file-or-directory> [threads] [seconds per puzzle] [portfolio strategies]");
+            return;
+        }
+
+        int threads = Runtime.getRuntime().availableProcessors();
+        long timeLimitMillis = DEFAULT_TIME_LIMIT_MILLIS;
+        int portfolio = 0;
+        try {
+            if (args.length > 1) threads = Integer.parseInt(args[1]);
+            if (args.length > 2) timeLimitMillis = Long.parseLong(args[2]) * 1000;
+            if (args.length > 3) portfolio = Integer.parseInt(args[3]);
+        } catch (NumberFormatException e) {
+            System.out.println("Invalid number: " + e.getMessage());
+            return;
+        }
+        if (threads < 1 || timeLimitMillis < 0 || portfolio < 0) {
+            System.out.println("Threads must be at least 1, seconds and strategies must not be negative");
+            return;
+        }
+
+        ArrayList<String> readErrors = new ArrayList<>();
+        ArrayList<puzzleSpec> specs;
+        try {
+            specs = puzzleSpecReader.read(Paths.get(args[0]), readErrors);
+        } catch (IOException e) {
+            System.err.println("Error reading puzzle specs: " + e.getMessage());
+            return;
+        }
+
+        System.out.println("Generating " + specs.size() + " puzzles on " + threads + " threads");
+        long start = System.nanoTime();
+        ArrayList<Result> results = run(specs, threads, timeLimitMillis, portfolio);
+        printReport(results, readErrors, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * generates and saves every spec on a bounded pool of worker threads
+     *
+     * @param specs - puzzles to generate
+     * @param threads - number of worker threads
+     * @param timeLimitMillis - search budget per puzzle, 0 for none
+     * @return one result per spec, in the same order
+     */
+    public static ArrayList<Result> run(ArrayList<puzzleSpec> specs, int threads, long timeLimitMillis) {
+        return run(specs, threads, timeLimitMillis, 0);
+    }
+
+    /**
+     * generates and saves every spec on a bounded pool of worker threads
+     *
+     * @param specs - puzzles to generate
+     * @param threads - number of worker threads
+     * @param timeLimitMillis - search budget per puzzle, 0 for none
+     * @param portfolio - portfolio strategies raced per puzzle, each on its own thread; 0 for the plain search
+     * @return one result per spec, in the same order
+     */
+    public static ArrayList<Result> run(ArrayList<puzzleSpec> specs, int threads, long timeLimitMillis, int portfolio) {
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(threads * QUEUE_PER_THREAD), new ThreadPoolExecutor.CallerRunsPolicy());
+
+        ArrayList<Future<Result>> futures = new ArrayList<>();
+        ArrayList<Result> results = new ArrayList<>();
+        // first spec per save key, across every file and line of the input
+        HashMap<String, puzzleSpec> firstByKey = new HashMap<>();
+        try {
+            for (puzzleSpec spec : specs) {
+                puzzleSpec first = firstByKey.putIfAbsent(puzzleManager.puzzleKey(spec.title), spec);
+                if (first != null) {
+                    futures.add(CompletableFuture.completedFuture(new Result(spec.title, spec.source, null, 0,
+                            "duplicate title, same as " + first.title + " (" + first.source + ")")));
+                    continue;
+                }
+                futures.add(pool.submit(() -> portfolio > 0
+                        ? generatePortfolio(spec, timeLimitMillis, portfolio)
+                        : generate(spec, timeLimitMillis)));
+            }
+            for (int i = 0; i < futures.size(); i++) {
+                puzzleSpec spec = specs.get(i);
+                try {
+                    results.add(futures.get(i).get());
+                } catch (ExecutionException e) {
+                    // a crash in one puzzle only fails that puzzle
+                    results.add(new Result(spec.title, spec.source, null, 0, "generation failed: " + e.getCause()));
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            pool.shutdownNow();
+        }
+        return results;
+    }
+
+    // checks, lays out and saves one spec
+    static Result generate(puzzleSpec spec, long timeLimitMillis) {
+        long start = System.nanoTime();
+
+        String problem = generateNewPuzzle.checkWords(spec.words);
+        if (problem != null) return new Result(spec.title, spec.source, null, millisSince(start), problem);
+
+        searchOptions options = new searchOptions();
+        options.timeLimitMillis = timeLimitMillis;
+        generatedPuzzle puzzle = generateNewPuzzle.layOut(spec.title,
+                generateNewPuzzle.buildWordList(spec.words, spec.clues), options);
+
+        if (!puzzle.solved()) {
+            StringBuilder unplaced = new StringBuilder("could not place:");
+            for (wordKeeper w : puzzle.search.unplacedWords) unplaced.append(' ').append(w.word);
+            return new Result(spec.title, spec.source, puzzle.search.status, millisSince(start), unplaced.toString());
+        }
+
+        try {
+            puzzleManager.storePuzzle(spec.title, puzzle.grid.getBoard(), puzzle.placedWords, puzzle.wordList);
+        } catch (IOException e) {
+            return new Result(spec.title, spec.source, puzzle.search.status, millisSince(start), "save failed: " + e.getMessage());
+        }
+        return new Result(spec.title, spec.source, puzzle.search.status, millisSince(start), null);
+    }
+
+    // checks one spec, races a portfolio of strategies on it and saves the winner's layout
+    static Result generatePortfolio(puzzleSpec spec, long timeLimitMillis, int strategies) {
+        long start = System.nanoTime();
+
+        String problem = generateNewPuzzle.checkWords(spec.words);
+        if (problem != null) return new Result(spec.title, spec.source, null, millisSince(start), problem);
+
+        ArrayList<wordKeeper> wordList = generateNewPuzzle.buildWordList(spec.words, spec.clues);
+        portfolioSolver.Outcome outcome = portfolioSolver.solve(wordList,
+                portfolioSolver.defaultPortfolio(strategies), strategies, timeLimitMillis);
+
+        String winner = outcome.solved() ? outcome.strategy.name : null;
+        ArrayList<String> outOfTime = new ArrayList<>();
+        for (portfolioSolver.Strategy s : outcome.outOfTime) outOfTime.add(s.name);
+
+        if (!outcome.solved()) {
+            // every strategy either gave up or hit the budget
+            searchResult.Status status = outOfTime.isEmpty() ? searchResult.Status.EXHAUSTED : searchResult.Status.TIME_LIMIT;
+            return new Result(spec.title, spec.source, status, millisSince(start),
+                    "no strategy placed every word", null, outOfTime);
+        }
+
+        try {
+            puzzleManager.storePuzzle(spec.title, outcome.grid.getBoard(), outcome.placedWords, wordList);
+        } catch (IOException e) {
+            return new Result(spec.title, spec.source, searchResult.Status.SOLVED, millisSince(start),
+                    "save failed: " + e.getMessage(), winner, outOfTime);
+        }
+        return new Result(spec.title, spec.source, searchResult.Status.SOLVED, millisSince(start), null, winner, outOfTime);
+    }
+
+    /**
+     * prints the summary of a batch run: counts, throughput, latency percentiles and every failure
+     *
+     * @param results - results of the run
+     * @param readErrors - lines of the input that could not be read
+     * @param wallMillis - duration of the whole run
+     */
+    public static void printReport(ArrayList<Result> results, ArrayList<String> readErrors, long wallMillis) {
+        int saved = 0;
+        long[] latencies = new long[results.size()];
+        for (int i = 0; i < results.size(); i++) {
+            if (results.get(i).saved()) saved++;
+            latencies[i] = results.get(i).millis;
+        }
+        Arrays.sort(latencies);
+
+        System.out.println();
+        System.out.println("=== BATCH REPORT ===");
+        System.out.println("Puzzles:    " + results.size());
+        System.out.println("Saved:      " + saved);
+        System.out.println("Failed:     " + (results.size() - saved));
+        System.out.println("Bad input:  " + readErrors.size() + " lines");
+        System.out.println("Wall time:  " + wallMillis + " ms");
+        System.out.printf("Throughput: %.2f puzzles/s%n", wallMillis == 0 ? 0.0 : results.size() * 1000.0 / wallMillis);
+        if (latencies.length > 0) {
+            System.out.println("Latency ms: min " + latencies[0]
+                    + ", p50 " + percentile(latencies, 50)
+                    + ", p90 " + percentile(latencies, 90)
+                    + ", p99 " + percentile(latencies, 99)
+                    + ", max " + latencies[latencies.length - 1]);
+        }
+
+        if (!readErrors.isEmpty()) {
+            System.out.println("\n=== UNREADABLE INPUT ===");
+            for (String e : readErrors) System.out.println(e);
+        }
+
+        printPortfolio(results);
+
+        if (saved < results.size()) {
+            System.out.println("\n=== FAILURES ===");
+            for (Result r : results) {
+                if (r.saved()) continue;
+                String status = r.status == null ? "REJECTED" : r.status.toString();
+                System.out.println(r.title + " (" + r.source + ") " + status + ": " + r.error);
+            }
+        }
+    }
+
+    // winner and out-of-time strategies per puzzle, then wins and timeouts per strategy; nothing for plain runs
+    private static void printPortfolio(ArrayList<Result> results) {
+        TreeMap<String, int[]> tally = new TreeMap<>();
+        StringBuilder lines = new StringBuilder();
+        for (Result r : results) {
+            if (r.outOfTime == null) continue;
+            lines.append(r.title).append(": ")
+                    .append(r.strategy == null ? "no winner" : r.strategy + " won in " + r.millis + " ms");
+            if (!r.outOfTime.isEmpty()) lines.append(", out of time: ").append(String.join(", ", r.outOfTime));
+            lines.append('\n');
+            if (r.strategy != null) tally.computeIfAbsent(r.strategy, k -> new int[2])[0]++;
+            for (String s : r.outOfTime) tally.computeIfAbsent(s, k -> new int[2])[1]++;
+        }
+        if (lines.length() == 0) return;
+
+        System.out.println("\n=== PORTFOLIO ===");
+        System.out.print(lines);
+        for (Map.Entry<String, int[]> e : tally.entrySet()) {
+            System.out.println(e.getKey() + ": " + e.getValue()[0] + " won, " + e.getValue()[1] + " out of time");
+        }
+    }
+
+    // nearest-rank percentile of sorted values
+    private static long percentile(long[] sorted, int p) {
+        int rank = (int) Math.ceil(p / 100.0 * sorted.length);
+        return sorted[Math.max(0, rank - 1)];
+    }
+
+    private static long millisSince(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1_000_000;
+    }
+}
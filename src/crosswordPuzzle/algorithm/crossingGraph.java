@@ -0,0 +1,137 @@
+package crosswordPuzzle.algorithm;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import crosswordPuzzle.core.*;
+
+/**
+ * which words of a word list can cross each other, built once before the search
+ *
+ * two words can cross when they share a letter. words are numbered by their position in the list
+ *
+ * built from the 26-bit letter mask every wordKeeper carries:
+ *  - groups of words that can reach each other through crossings are found by walking per-letter word
+ *    lists, O(words * 26), so a list that cannot form one crossword is rejected before any pair is compared
+ *  - two words share a letter when their masks share a bit, one AND instead of comparing strings
+ *  - degrees are only counted when first asked for
+ *
+ * used by the input check (groups) and the MOST_CONNECTED anchor (degrees) only; the search orders the
+ * remaining words by the letters on the grid, see nextWordSelector
+ */
+class crossingGraph {
+    // letter masks of the words, copied so pair loops read one array
+    private final int[] mask;
+
+    // per letter: the words holding it
+    private final int[][] wordsWithLetter = new int[26][];
+
+    // group of every word, words in different groups can never end up in the same crossword
+    private final int[] component;
+    private final int componentCount;
+
+    // built on first use: number of words each word can cross
+    private int[] degree;
+
+    /**
+     * @param listOfW - words of the puzzle, only read
+     */
+    crossingGraph(ArrayList<wordKeeper> listOfW) {
+        int n = listOfW.size();
+        this.mask = new int[n];
+
+        int[] wordCount = new int[26];
+        for (int i = 0; i < n; i++) {
+            mask[i] = listOfW.get(i).letterMask;
+            for (int m = mask[i]; m != 0; m &= m - 1) wordCount[Integer.numberOfTrailingZeros(m)]++;
+        }
+        int[] fill = new int[26];
+        for (int l = 0; l < 26; l++) wordsWithLetter[l] = new int[wordCount[l]];
+        for (int i = 0; i < n; i++) {
+            for (int m = mask[i]; m != 0; m &= m - 1) {
+                int l = Integer.numberOfTrailingZeros(m);
+                wordsWithLetter[l][fill[l]++] = i;
+            }
+        }
+
+        this.component = new int[n];
+        Arrays.fill(component, -1);
+        int groups = 0;
+        for (int i = 0; i < n; i++) {
+            if (component[i] < 0) label(i, groups++);
+        }
+        this.componentCount = groups;
+    }
+
+    // gives every word reachable from start the group number, walking the letters the group holds
+    private void label(int start, int group) {
+        component[start] = group;
+        int seen = 0;
+        int pending = mask[start];
+        while (pending != 0) {
+            int l = Integer.numberOfTrailingZeros(pending);
+            pending &= pending - 1;
+            seen |= 1 << l;
+            for (int i : wordsWithLetter[l]) {
+                if (component[i] >= 0) continue;
+                component[i] = group;
+                pending |= mask[i] & ~seen;
+            }
+        }
+    }
+
+    int size() {
+        return mask.length;
+    }
+
+    /**
+     * @return true if every word can reach every other word through crossings
+     */
+    boolean isConnected() {
+        return componentCount <= 1;
+    }
+
+    int componentCount() {
+        return componentCount;
+    }
+
+    int component(int i) {
+        return component[i];
+    }
+
+    /**
+     * @return index of the first word sharing no letter with any other word, -1 if there is none
+     */
+    int firstIsolated() {
+        for (int i = 0; i < mask.length; i++) {
+            boolean alone = true;
+            for (int m = mask[i]; m != 0 && alone; m &= m - 1) {
+                alone = wordsWithLetter[Integer.numberOfTrailingZeros(m)].length == 1;
+            }
+            if (alone) return i;
+        }
+        return -1;
+    }
+
+    /**
+     * @return number of other words word i can cross
+     */
+    int degree(int i) {
+        if (degree == null) buildDegrees();
+        return degree[i];
+    }
+
+    // one mask AND per pair
+    private void buildDegrees() {
+        int n = mask.length;
+        int[] d = new int[n];
+        for (int i = 0; i < n; i++) {
+            for (int j = i + 1; j < n; j++) {
+                if ((mask[i] & mask[j]) != 0) {
+                    d[i]++;
+                    d[j]++;
+                }
+            }
+        }
+        this.degree = d;
+    }
+}
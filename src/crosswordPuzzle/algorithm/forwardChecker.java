@@ -0,0 +1,225 @@
+package crosswordPuzzle.algorithm;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import crosswordPuzzle.core.*;
+
+/**
+ * forward checking for the backtracking search, see searchOptions.forwardChecking
+ *
+ * keeps the valid placements of every unused word up to date while the search places and undoes words,
+ * so a layout that can no longer be finished is noticed right after the placement that ruined it instead
+ * of when the search finally picks the word that lost its last placement
+ *
+ * updates:
+ *  - placing a word can only invalidate placements whose span, ends or sides touch it, so only those are
+ *    checked again; new valid placements have to cross the placed word, so only those starts are tried
+ *  - every change goes on a trail, undoing a word pops its changes off again
+ *
+ * dead end:
+ *  a word without a valid placement is not lost yet, a word placed later can give it a new crossing;
+ *  it is lost once no unused word that can still be placed shares a letter with it. words with a placement
+ *  can still be placed, and so can every word sharing a letter with one that can, so the words left over
+ *  have nothing left to cross. this never prunes a layout that could be finished, so the search finds
+ *  the same layout with and without forward checking, visiting fewer nodes
+ */
+class forwardChecker {
+    private final Grid grid;
+    private final wordKeeper[] words;
+    private final IdentityHashMap<wordKeeper, Integer> indexOf = new IdentityHashMap<>();
+
+    // bit l set when the word holds letter 'A' + l
+    private final int[] letterMask;
+    private final boolean[] placed;
+
+    // valid placements per word, packed with pack(), count[i] of them in use
+    private final long[][] viable;
+    private final int[] count;
+
+    // changes made by the placements: word index, packed placement and whether it was added or removed
+    // mark[d] = trail size before the placement at depth d
+    private int[] trailWord = new int[64];
+    private long[] trailPlacement = new long[64];
+    private boolean[] trailAdded = new boolean[64];
+    private int trailSize;
+    private final int[] mark;
+    private int depth;
+
+    private final placementBuffer scratch = new placementBuffer();
+
+    /**
+     * @param unusedWords - words still to place, only read
+     * @param grid - grid the search places words on
+     */
+    forwardChecker(ArrayList<wordKeeper> unusedWords, Grid grid) {
+        int n = unusedWords.size();
+        this.grid = grid;
+        this.words = unusedWords.toArray(new wordKeeper[0]);
+        this.letterMask = new int[n];
+        this.placed = new boolean[n];
+        this.viable = new long[n][];
+        this.count = new int[n];
+        this.mark = new int[n + 1];
+
+        for (int i = 0; i < n; i++) {
+            indexOf.put(words[i], i);
+            letterMask[i] = words[i].letterMask;
+
+            placementEvaluator.generateCrossingPlacements(words[i], grid, scratch, null);
+            viable[i] = new long[Math.max(4, scratch.size())];
+            for (int k = 0; k < scratch.size(); k++) {
+                viable[i][count[i]++] = pack(scratch.row(k), scratch.col(k), scratch.isVertical(k));
+            }
+        }
+    }
+
+    /**
+     * brings the placements of the unused words up to date after pw was placed on the grid
+     */
+    void placed(placedWord pw) {
+        mark[depth++] = trailSize;
+        placed[indexOf.get(pw.word)] = true;
+
+        int len = pw.word.letters.length;
+        int pwMask = pw.word.letterMask;
+        int lastRow = pw.isVertical ? pw.row + len - 1 : pw.row;
+        int lastCol = pw.isVertical ? pw.col : pw.col + len - 1;
+
+        for (int i = 0; i < words.length; i++) {
+            if (placed[i]) continue;
+            int wordLen = words[i].letters.length;
+
+            // placements touching the new word may have become invalid
+            for (int k = count[i] - 1; k >= 0; k--) {
+                long p = viable[i][k];
+                int row = row(p), col = col(p);
+                boolean vertical = vertical(p);
+                int endRow = vertical ? row + wordLen - 1 : row;
+                int endCol = vertical ? col : col + wordLen - 1;
+
+                // bounding boxes, the placement's grown by one for its ends and sides
+                if (row - 1 > lastRow || endRow + 1 < pw.row || col - 1 > lastCol || endCol + 1 < pw.col) continue;
+                if (placementEvaluator.placementScore(words[i], row, col, vertical, grid) > 0) continue;
+
+                remove(i, k);
+                record(i, p, false);
+            }
+
+            // new placements cross the new word
+            if ((letterMask[i] & pwMask) == 0) continue;
+            for (int j = 0; j < len; j++) {
+                int r = pw.isVertical ? pw.row + j : pw.row;
+                int c = pw.isVertical ? pw.col : pw.col + j;
+                char ch = pw.word.letters[j];
+                for (int m = 0; m < wordLen; m++) {
+                    if (words[i].letters[m] != ch) continue;
+                    tryAdd(i, r, c - m, false);
+                    tryAdd(i, r - m, c, true);
+                }
+            }
+        }
+    }
+
+    /**
+     * undoes the changes of the last placement, pw has already been taken off the grid
+     */
+    void removed(placedWord pw) {
+        int start = mark[--depth];
+        while (trailSize > start) {
+            trailSize--;
+            int i = trailWord[trailSize];
+            long p = trailPlacement[trailSize];
+            if (trailAdded[trailSize]) remove(i, indexOfPlacement(i, p));
+            else add(i, p);
+        }
+        placed[indexOf.get(pw.word)] = false;
+    }
+
+    /**
+     * true if some unused word can no longer be placed whatever the search does next
+     */
+    boolean deadEnd() {
+        int stranded = 0;
+        int reachable = 0;
+        for (int i = 0; i < words.length; i++) {
+            if (placed[i]) continue;
+            if (count[i] > 0) reachable |= letterMask[i];
+            else stranded++;
+        }
+        if (stranded == 0) return false;
+
+        // words without a placement that share a letter with a reachable word become reachable too
+        boolean grew = true;
+        while (grew) {
+            grew = false;
+            for (int i = 0; i < words.length; i++) {
+                if (placed[i] || count[i] > 0) continue;
+                if ((letterMask[i] & reachable) != 0 && (letterMask[i] | reachable) != reachable) {
+                    reachable |= letterMask[i];
+                    grew = true;
+                }
+            }
+        }
+
+        for (int i = 0; i < words.length; i++) {
+            if (!placed[i] && count[i] == 0 && (letterMask[i] & reachable) == 0) return true;
+        }
+        return false;
+    }
+
+    // adds a start crossing the new word if it is valid and not known yet
+    private void tryAdd(int i, int row, int col, boolean vertical) {
+        long p = pack(row, col, vertical);
+        if (indexOfPlacement(i, p) >= 0) return;
+        if (placementEvaluator.placementScore(words[i], row, col, vertical, grid) <= 0) return;
+        add(i, p);
+        record(i, p, true);
+    }
+
+    private void add(int i, long p) {
+        if (count[i] == viable[i].length) viable[i] = Arrays.copyOf(viable[i], count[i] * 2);
+        viable[i][count[i]++] = p;
+    }
+
+    // swap-remove, the order of the placements does not matter
+    private void remove(int i, int k) {
+        viable[i][k] = viable[i][--count[i]];
+    }
+
+    private int indexOfPlacement(int i, long p) {
+        for (int k = 0; k < count[i]; k++) {
+            if (viable[i][k] == p) return k;
+        }
+        return -1;
+    }
+
+    private void record(int i, long p, boolean added) {
+        if (trailSize == trailWord.length) {
+            trailWord = Arrays.copyOf(trailWord, trailSize * 2);
+            trailPlacement = Arrays.copyOf(trailPlacement, trailSize * 2);
+            trailAdded = Arrays.copyOf(trailAdded, trailSize * 2);
+        }
+        trailWord[trailSize] = i;
+        trailPlacement[trailSize] = p;
+        trailAdded[trailSize] = added;
+        trailSize++;
+    }
+
+    // row in the high half, column and orientation in the low half, both signed
+    private static long pack(int row, int col, boolean vertical) {
+        return ((long) row << 32) | ((col << 1 | (vertical ? 1 : 0)) & 0xFFFFFFFFL);
+    }
+
+    private static int row(long p) {
+        return (int) (p >> 32);
+    }
+
+    private static int col(long p) {
+        return (int) p >> 1;
+    }
+
+    private static boolean vertical(long p) {
+        return (p & 1) != 0;
+    }
+}
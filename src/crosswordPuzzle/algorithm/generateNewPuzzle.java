@@ -1,6 +1,9 @@
 package crosswordPuzzle.algorithm;
 
+import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Scanner;
 import crosswordPuzzle.core.*;
 import crosswordPuzzle.io.*;
@@ -11,10 +14,17 @@ import crosswordPuzzle.io.*;
  * What it does:
  * Asks for user input for number of words, words with corresponding clues, and title
  * Selects the anchor word 
- * Initiates the backtracking algorithm
+ * Initiates the backtracking algorithm, unless the same words were laid out before (see layoutCache)
  */
 public class generateNewPuzzle {
 
+    // search budget for an interactive generation, after that the best partial layout is shown
+    private static final long TIME_LIMIT_MILLIS = 60_000;
+
+    // layouts of earlier puzzles, kept on disk next to savedPuzzles so they survive a restart
+    private static final int CACHE_CAPACITY = 64;
+    private static final layoutCache CACHE = new layoutCache(CACHE_CAPACITY, Paths.get("layoutCache"));
+
     public static void generatePuzzle() {
         Scanner sc = new Scanner(System.in);
 
@@ -89,41 +99,51 @@ public class generateNewPuzzle {
             title = sc.nextLine().trim();
         }
 
-        // Array list to keep track of unused words
-        ArrayList<wordKeeper> unusedWords = new ArrayList<>(allWords);
-
-        // Selects word to be the anchor
-        wordKeeper anchor = anchorSelector.findAnchor(allWords);
-        System.out.println("\nAnchor Word: " + anchor.word);
+        Grid grid;
+        searchResult result;
 
-        // Determines grid size either minimum of 15x15 or length of anchor word
-        int size = Math.max(15, anchor.word.length());
-
-        // Initialize grid with determined size
-        Grid grid = new Grid(size, size);
+        // Same words as an earlier puzzle: reuse its layout with the new clues
+        generatedPuzzle cached = CACHE.lookup(title, allWords);
+        if (cached != null) {
+            System.out.println("\nThese words were laid out before, reusing that layout");
+            grid = cached.grid;
+            placedWordList.addAll(cached.placedWords);
+            result = cached.search;
+        } else {
+            // Array list to keep track of unused words
+            ArrayList<wordKeeper> unusedWords = new ArrayList<>(allWords);
 
-        // For anchor word, placed at center horizontally
-        placedWord anchorPW = new placedWord(anchor,
-                (grid.getRows() - anchor.word.length()) / 2,
-                (grid.getCols() - anchor.word.length()) / 2,
-                false);
+            // Selects word to be the anchor
+            wordKeeper anchor = anchorSelector.findAnchor(allWords);
+            System.out.println("\nAnchor Word: " + anchor.word);
 
-        placedWordList.add(anchorPW);
-        unusedWords.remove(anchor);
-        grid.wordPlacer(anchorPW, placedWordList);
+            // Grid with the anchor placed at center horizontally
+            grid = startGrid(anchor, placedWordList);
+            unusedWords.remove(anchor);
 
-        // Backtracking algorithm to place words
-        boolean success = backtrack.placeWordsBacktracking(unusedWords, placedWordList, grid);
+            // Backtracking algorithm to place words
+            searchOptions options = new searchOptions();
+            options.timeLimitMillis = TIME_LIMIT_MILLIS;
+            result = backtrack.placeWords(unusedWords, placedWordList, grid, options);
+            CACHE.store(new generatedPuzzle(title, grid, placedWordList, allWords, result));
+        }
         
         
         System.out.println();
-        if (success) {
+        if (result.solved()) {
             System.out.println("All words placed successfully");
             System.out.println("Final Grid Size: " + grid.getRows() + " x " + grid.getCols());
             puzzleManager.savePuzzle(title, grid.getBoard(), placedWordList, allWords);
         } else {
-            System.out.println("Failed to place all words");
-            System.out.println("Please review your input.");
+            if (result.status == searchResult.Status.TIME_LIMIT) {
+                System.out.println("Failed to place all words within " + TIME_LIMIT_MILLIS / 1000 + " seconds");
+            } else {
+                System.out.println("Failed to place all words");
+            }
+            System.out.print("Could not place:");
+            for (wordKeeper w : result.unplacedWords) System.out.print(" " + w.word);
+            System.out.println();
+            System.out.println("Please review your input. Best partial layout below.");
             
         }
         
@@ -138,36 +158,142 @@ public class generateNewPuzzle {
         grid.displayGrid();
     }
     
-    static boolean allWordsHaveOverlap(ArrayList<wordKeeper> words) {
-        for (int i = 0; i < words.size(); i++) {
-            boolean hasOverlap = false;
+    /**
+     * creates the starting grid and places the anchor word at its center horizontally
+     * 
+     * @param anchor - word chosen by anchorSelector
+     * @param placedWordList - list the anchor placement is added to
+     * @return grid holding only the anchor word
+     */
+    static Grid startGrid(wordKeeper anchor, ArrayList<placedWord> placedWordList) {
+        // Determines grid size either minimum of 15x15 or length of anchor word
+        int size = Math.max(15, anchor.word.length());
 
-            for (int j = 0; j < words.size(); j++) {
-                if (i == j) continue;
+        // Initialize grid with determined size
+        Grid grid = new Grid(size, size);
 
-                if (sharesLetter(words.get(i).word, words.get(j).word)) {
-                    hasOverlap = true;
-                    break;
-                }
-            }
+        placedWord anchorPW = new placedWord(anchor,
+                (grid.getRows() - anchor.word.length()) / 2,
+                (grid.getCols() - anchor.word.length()) / 2,
+                false);
 
-            if (!hasOverlap) {
-            	System.out.println("ERROR: Some word/s do not share letters with any others.  Try Again");
-                return false;
-            }
+        placedWordList.add(anchorPW);
+        grid.wordPlacer(anchorPW);
+        return grid;
+    }
+
+    /**
+     * checks a word list read from a file the way generatePuzzle checks typed input:
+     * letters only, no duplicates (ignoring case), and all words connected through shared letters
+     *
+     * @param words - words as written
+     * @return null if the words can be used, otherwise the reason they cannot
+     */
+    static String checkWords(List<String> words) {
+        if (words.isEmpty()) return "no words";
+
+        HashSet<String> seen = new HashSet<>();
+        for (String w : words) {
+            String word = w.trim().toUpperCase();
+            if (word.isEmpty()) return "empty word";
+            if (!word.matches("[A-Z]+")) return "word is not alphabetic: " + w;
+            if (!seen.add(word)) return "duplicate word: " + word;
         }
-        return true;
+
+        // the graph only reads the words, they stand in for the clues
+        crossingGraph graph = new crossingGraph(buildWordList(words, words));
+        int isolated = graph.firstIsolated();
+        if (isolated >= 0) return "word shares no letters with the others: " + words.get(isolated).trim().toUpperCase();
+        if (!graph.isConnected()) return "words split into " + graph.componentCount() + " groups sharing no letters: "
+                + describeGroups(graph, words);
+        return null;
     }
-    
-    static boolean sharesLetter(String a, String b) {
-        for (int i = 0; i < a.length(); i++) {
-            if (b.indexOf(a.charAt(i)) != -1) {
-                return true;
-            }
+
+    /**
+     * builds the word list for checked words, numbered from 1 in order like typed input
+     */
+    static ArrayList<wordKeeper> buildWordList(List<String> words, List<String> clues) {
+        ArrayList<wordKeeper> allWords = new ArrayList<>();
+        for (int i = 0; i < words.size(); i++) {
+            allWords.add(new wordKeeper(words.get(i).trim().toUpperCase(), i + 1, clues.get(i)));
         }
-        return false;
+        return allWords;
+    }
+
+    /**
+     * lays out a checked word list without any console input or output:
+     * picks the anchor, starts the grid and runs the search with the given settings
+     *
+     * @param title - title of the puzzle
+     * @param allWords - all words of the puzzle
+     * @param options - search settings
+     * @return the trimmed layout, the best partial layout if not every word could be placed
+     */
+    static generatedPuzzle layOut(String title, ArrayList<wordKeeper> allWords, searchOptions options) {
+        return layOut(title, allWords, options, null);
     }
 
+    /**
+     * lays out a checked word list like layOut, answering from the cache when the same words were laid out before
+     * a solved layout found by the search is added to the cache
+     *
+     * @param cache - layouts of earlier word lists, null to always search
+     */
+    static generatedPuzzle layOut(String title, ArrayList<wordKeeper> allWords, searchOptions options,
+                                  layoutCache cache) {
+        if (cache != null) {
+            generatedPuzzle cached = cache.lookup(title, allWords);
+            if (cached != null) return cached;
+        }
 
-    
+        ArrayList<placedWord> placedWordList = new ArrayList<>();
+        wordKeeper anchor = anchorSelector.findAnchor(allWords);
+        Grid grid = startGrid(anchor, placedWordList);
+
+        ArrayList<wordKeeper> unusedWords = new ArrayList<>(allWords);
+        unusedWords.remove(anchor);
+
+        searchResult result = backtrack.placeWords(unusedWords, placedWordList, grid, options);
+        generatedPuzzle puzzle = new generatedPuzzle(title, grid, placedWordList, allWords, result);
+        if (cache != null) cache.store(puzzle);
+        return puzzle;
+    }
+
+    /**
+     * checks that the words can form one crossword: every word shares a letter with another word,
+     * and the words do not split into groups that share no letters with each other
+     *
+     * @param words - all words of the puzzle
+     * @return true if the words are connected, otherwise prints why not
+     */
+    static boolean allWordsHaveOverlap(ArrayList<wordKeeper> words) {
+        crossingGraph graph = new crossingGraph(words);
+
+        if (graph.firstIsolated() >= 0) {
+            System.out.println("ERROR: Some word/s do not share letters with any others.  Try Again");
+            return false;
+        }
+        if (!graph.isConnected()) {
+            ArrayList<String> text = new ArrayList<>();
+            for (wordKeeper w : words) text.add(w.word);
+            System.out.println("ERROR: The words split into " + graph.componentCount()
+                    + " groups that share no letters with each other (" + describeGroups(graph, text) + ").  Try Again");
+            return false;
+        }
+        return true;
+    }
+
+    // first word of every group, e.g. "CAT / DOG"
+    private static String describeGroups(crossingGraph graph, List<String> words) {
+        StringBuilder sb = new StringBuilder();
+        boolean[] shown = new boolean[graph.componentCount()];
+        for (int i = 0; i < graph.size(); i++) {
+            int group = graph.component(i);
+            if (shown[group]) continue;
+            shown[group] = true;
+            if (sb.length() > 0) sb.append(" / ");
+            sb.append(words.get(i).trim().toUpperCase());
+        }
+        return sb.toString();
+    }
 }
@@ -0,0 +1,29 @@
+package crosswordPuzzle.algorithm;
+
+import java.util.ArrayList;
+import crosswordPuzzle.core.*;
+
+/**
+ * a puzzle laid out without console interaction, e.g. by batchGenerator
+ * the grid is trimmed and holds the best partial layout if the search could not place every word
+ */
+public class generatedPuzzle {
+    public final String title;
+    public final Grid grid;
+    public final ArrayList<placedWord> placedWords;
+    public final ArrayList<wordKeeper> wordList;
+    public final searchResult search;
+
+    generatedPuzzle(String title, Grid grid, ArrayList<placedWord> placedWords, ArrayList<wordKeeper> wordList,
+                    searchResult search) {
+        this.title = title;
+        this.grid = grid;
+        this.placedWords = placedWords;
+        this.wordList = wordList;
+        this.search = search;
+    }
+
+    public boolean solved() {
+        return search.solved();
+    }
+}
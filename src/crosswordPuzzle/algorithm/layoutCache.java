@@ -0,0 +1,361 @@
+package crosswordPuzzle.algorithm;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import crosswordPuzzle.core.*;
+import crosswordPuzzle.io.*;
+
+/**
+ * remembers the layouts of solved word lists, so generating a puzzle from the same words again skips the search
+ *
+ * a layout only depends on the words, not on their clues, order or case, so:
+ *  - the key is a SHA-256 hash of the words, uppercased and sorted
+ *  - an entry keeps the solution grid and, per placed word, its word, position and orientation, but no clues
+ *  - a hit rebuilds the grid and placements on the caller's own wordKeeper objects, which carry the new clues
+ *    and ids; the caller's words are checked against the entry, so a hash collision is just a miss
+ *
+ * tiers:
+ *  - memory: the most recently used `capacity` entries, least recently used dropped first
+ *  - disk (optional): one file per entry in the binary puzzle format, also kept to the most recently used
+ *    DISK_CAPACITY files; a disk hit is promoted to memory. the directory is listed once, after that an
+ *    in-memory LRU of the file keys decides which files to drop. a file that cannot be read back is a miss
+ *    and is deleted
+ *
+ * only complete layouts are stored, a partial layout could be improved by searching longer
+ * safe to share between threads: files are read and written outside the lock, which only guards the maps
+ * and statistics
+ */
+public class layoutCache {
+
+    // files kept in the disk tier
+    static final int DISK_CAPACITY = 1000;
+
+    private static final String SUFFIX = ".layout";
+
+    /**
+     * words, grid and placements of one solved word list
+     * placement i puts word placedWord[i] at (row[i], col[i]), in the order the search placed them
+     */
+    private static final class Layout {
+        final String[] sortedWords;
+        final char[][] board;
+        final String[] placedWord;
+        final int[] row;
+        final int[] col;
+        final boolean[] vertical;
+
+        Layout(String[] sortedWords, char[][] board, List<placedWord> placedWords) {
+            this.sortedWords = sortedWords;
+            this.board = board;
+            int n = placedWords.size();
+            this.placedWord = new String[n];
+            this.row = new int[n];
+            this.col = new int[n];
+            this.vertical = new boolean[n];
+            for (int i = 0; i < n; i++) {
+                placedWord pw = placedWords.get(i);
+                placedWord[i] = pw.word.word;
+                row[i] = pw.row;
+                col[i] = pw.col;
+                vertical[i] = pw.isVertical;
+            }
+        }
+    }
+
+    private final LinkedHashMap<String, Layout> memory;
+    private final Path directory;
+
+    // keys of the files in the disk tier, least recently used first; listed from the directory on first store
+    private LinkedHashMap<String, Boolean> diskKeys;
+
+    private long hits;
+    private long diskHits;
+    private long misses;
+
+    /**
+     * memory only cache
+     *
+     * @param capacity - layouts kept in memory
+     */
+    public layoutCache(int capacity) {
+        this(capacity, null);
+    }
+
+    /**
+     * @param capacity - layouts kept in memory
+     * @param directory - folder of the disk tier, created on first store; null for memory only
+     */
+    public layoutCache(int capacity, Path directory) {
+        if (capacity < 1) throw new IllegalArgumentException("capacity must be at least 1");
+        this.directory = directory;
+
+        // access order: every get moves the entry to the end, the eldest is the least recently used
+        this.memory = new LinkedHashMap<String, Layout>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Layout> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    /**
+     * canonical key of a word list: the same for the same words in any order or case
+     *
+     * @param words - words as written
+     * @return SHA-256 of the sorted uppercase words, in hex
+     */
+    public static String key(List<String> words) {
+        return key(canonical(words));
+    }
+
+    private static String key(String[] sortedWords) {
+        try {
+            MessageDigest sha = MessageDigest.getInstance("SHA-256");
+            for (String w : sortedWords) {
+                sha.update(w.getBytes(StandardCharsets.UTF_8));
+                sha.update((byte) '\n');
+            }
+            StringBuilder hex = new StringBuilder();
+            for (byte b : sha.digest()) hex.append(String.format("%02x", b));
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            // every Java platform has SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String[] canonical(List<String> words) {
+        String[] sorted = new String[words.size()];
+        for (int i = 0; i < sorted.length; i++) sorted[i] = words.get(i).trim().toUpperCase();
+        Arrays.sort(sorted);
+        return sorted;
+    }
+
+    private static String[] canonicalWords(List<wordKeeper> words) {
+        ArrayList<String> text = new ArrayList<>(words.size());
+        for (wordKeeper w : words) text.add(w.word);
+        return canonical(text);
+    }
+
+    /**
+     * looks up the layout of a word list
+     *
+     * @param title - title of the puzzle
+     * @param allWords - all words of the puzzle with their clues and ids
+     * @return the cached layout on a new grid, placed with allWords' own objects; null if not cached
+     */
+    public generatedPuzzle lookup(String title, ArrayList<wordKeeper> allWords) {
+        long start = System.nanoTime();
+        String[] sortedWords = canonicalWords(allWords);
+        String key = key(sortedWords);
+
+        Layout layout;
+        synchronized (this) {
+            layout = memory.get(key);
+        }
+        boolean fromDisk = false;
+        if (layout == null) {
+            layout = readDisk(key);
+            fromDisk = layout != null;
+        }
+
+        synchronized (this) {
+            if (layout == null || !Arrays.equals(layout.sortedWords, sortedWords)) {
+                misses++;
+                return null;
+            }
+            if (fromDisk) {
+                memory.put(key, layout);
+                if (diskKeys != null) diskKeys.get(key);
+                diskHits++;
+            }
+            hits++;
+        }
+
+        return rebuild(title, allWords, layout, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * stores the layout of a solved puzzle, a partial layout is ignored
+     *
+     * @param puzzle - a layout from generateNewPuzzle.layOut or the search
+     */
+    public void store(generatedPuzzle puzzle) {
+        if (!puzzle.solved()) return;
+        String[] sortedWords = canonicalWords(puzzle.wordList);
+        String key = key(sortedWords);
+        Layout layout = new Layout(sortedWords, puzzle.grid.getBoard(), puzzle.placedWords);
+
+        synchronized (this) {
+            memory.put(key, layout);
+        }
+        if (directory == null) return;
+
+        loadDiskKeys();
+        if (!writeDisk(key, layout)) return;
+
+        // the least recently used files beyond DISK_CAPACITY are dropped from the keys here, deleted below
+        ArrayList<String> evicted = new ArrayList<>();
+        synchronized (this) {
+            diskKeys.put(key, Boolean.TRUE);
+            while (diskKeys.size() > DISK_CAPACITY) {
+                String eldest = diskKeys.keySet().iterator().next();
+                diskKeys.remove(eldest);
+                evicted.add(eldest);
+            }
+        }
+        for (String k : evicted) {
+            if (!directory.resolve(k + SUFFIX).toFile().delete()) {
+                System.err.println("Error evicting cached layout " + k + SUFFIX);
+            }
+        }
+    }
+
+    // places the entry's words, looked up by their text, on a grid the size of the stored one
+    private static generatedPuzzle rebuild(String title, ArrayList<wordKeeper> allWords, Layout layout, long millis) {
+        HashMap<String, wordKeeper> byWord = new HashMap<>();
+        for (wordKeeper w : allWords) byWord.put(w.word.trim().toUpperCase(), w);
+
+        Grid grid = new Grid(layout.board.length, layout.board.length == 0 ? 0 : layout.board[0].length);
+        ArrayList<placedWord> placedWords = new ArrayList<>(layout.placedWord.length);
+        for (int i = 0; i < layout.placedWord.length; i++) {
+            placedWord pw = new placedWord(byWord.get(layout.placedWord[i]), layout.row[i], layout.col[i],
+                    layout.vertical[i]);
+            grid.wordPlacer(pw);
+            placedWords.add(pw);
+        }
+
+        searchResult result = new searchResult(searchResult.Status.SOLVED, new ArrayList<>(), 0, millis);
+        return new generatedPuzzle(title, grid, placedWords, allWords, result);
+    }
+
+    // the layout in the file of a key, null if there is none; a file that cannot be decoded is deleted
+    private Layout readDisk(String key) {
+        if (directory == null) return null;
+        Path file = directory.resolve(key + SUFFIX);
+        if (!Files.exists(file)) return null;
+
+        try {
+            puzzleSolution puzzle = puzzleManager.readPuzzleFile(file);
+            if (!fitsGrid(puzzle)) throw new IOException("placements do not match the grid");
+            file.toFile().setLastModified(System.currentTimeMillis());
+            return new Layout(canonicalWords(puzzle.wordList), puzzle.grid, puzzle.placedWords);
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Error reading cached layout " + file.getFileName() + ": " + e.getMessage());
+            if (!file.toFile().delete()) System.err.println("Error removing cached layout " + file.getFileName());
+            synchronized (this) {
+                if (diskKeys != null) diskKeys.remove(key);
+            }
+            return null;
+        }
+    }
+
+    // true if every placement lies inside the grid and spells its word there
+    private static boolean fitsGrid(puzzleSolution puzzle) {
+        char[][] board = puzzle.grid;
+        for (placedWord pw : puzzle.placedWords) {
+            for (int i = 0; i < pw.word.letters.length; i++) {
+                int r = pw.isVertical ? pw.row + i : pw.row;
+                int c = pw.isVertical ? pw.col : pw.col + i;
+                if (r >= board.length || c >= board[r].length || board[r][c] != pw.word.letters[i]) return false;
+            }
+        }
+        return true;
+    }
+
+    // writes the entry without clues
+    private boolean writeDisk(String key, Layout layout) {
+        try {
+            Files.createDirectories(directory);
+            ArrayList<wordKeeper> wordList = new ArrayList<>();
+            HashMap<String, wordKeeper> byWord = new HashMap<>();
+            for (String w : layout.sortedWords) {
+                wordKeeper wk = new wordKeeper(w, wordList.size() + 1, "");
+                wordList.add(wk);
+                byWord.put(w, wk);
+            }
+            ArrayList<placedWord> placedWords = new ArrayList<>();
+            for (int i = 0; i < layout.placedWord.length; i++) {
+                placedWords.add(new placedWord(byWord.get(layout.placedWord[i]), layout.row[i], layout.col[i],
+                        layout.vertical[i]));
+            }
+            puzzleManager.writePuzzleFile(directory.resolve(key + SUFFIX), key, layout.board, placedWords, wordList);
+            return true;
+        } catch (IOException e) {
+            System.err.println("Error caching layout: " + e.getMessage());
+            return false;
+        }
+    }
+
+    // lists the disk tier once, least recently used first, so later stores evict without listing again
+    private void loadDiskKeys() {
+        synchronized (this) {
+            if (diskKeys != null) return;
+        }
+
+        File[] files = directory.toFile().listFiles((dir, name) -> name.endsWith(SUFFIX));
+        if (files == null) files = new File[0];
+        long[] modified = new long[files.length];
+        Integer[] order = new Integer[files.length];
+        for (int i = 0; i < files.length; i++) {
+            modified[i] = files[i].lastModified();
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Long.compare(modified[a], modified[b]));
+
+        LinkedHashMap<String, Boolean> keys = new LinkedHashMap<>(16, 0.75f, true);
+        for (int i : order) {
+            String name = files[i].getName();
+            keys.put(name.substring(0, name.length() - SUFFIX.length()), Boolean.TRUE);
+        }
+        synchronized (this) {
+            if (diskKeys == null) diskKeys = keys;
+        }
+    }
+
+    /**
+     * removes every layout from memory and from the disk tier
+     */
+    public void clear() {
+        synchronized (this) {
+            memory.clear();
+            if (diskKeys != null) diskKeys.clear();
+        }
+        if (directory == null) return;
+        File[] files = directory.toFile().listFiles((dir, name) -> name.endsWith(SUFFIX));
+        if (files == null) return;
+        for (File f : files) {
+            if (!f.delete()) System.err.println("Error removing cached layout " + f.getName());
+        }
+    }
+
+    // layouts in memory
+    public synchronized int size() {
+        return memory.size();
+    }
+
+    // lookups answered from the cache, including diskHits
+    public synchronized long hits() {
+        return hits;
+    }
+
+    // lookups answered from the disk tier
+    public synchronized long diskHits() {
+        return diskHits;
+    }
+
+    public synchronized long misses() {
+        return misses;
+    }
+}
@@ -1,6 +1,7 @@
 package crosswordPuzzle.algorithm;
 
 import java.util.ArrayList;
+import java.util.IdentityHashMap;
 import crosswordPuzzle.core.*;
 
 /**
@@ -10,9 +11,24 @@ import crosswordPuzzle.core.*;
  *  - foreach unusedWord object, counts how many of its letters exist on the current grid
  *  - word with highest count gets selected
  *  - if tie, longer word preferred
+ *
+ * the static methods score every unused word from scratch; an instance keeps the scores between
+ * calls for a whole search. a word's score only changes when the grid count of one of its letters
+ * changes (for INTERSECTIONS, when the letter appears or disappears), so each call only rescores the
+ * words holding such a letter. the unused words sit in an indexed heap, so the best one is read in
+ * O(1) and updated in O(log n)
  */
 
 public class nextWordSelector {
+
+    /**
+     * order in which unused words are picked
+     *  - INTERSECTIONS: most letters already on the grid, then longer word (the default)
+     *  - LONGEST: longer word first, then most letters already on the grid
+     *  - CROSSINGS: most ways to cross the grid, then longer word; a way is a letter of the word and a cell
+     *    holding the same letter
+     */
+    public enum Order { INTERSECTIONS, LONGEST, CROSSINGS }
     
     /**
      * method to select next word to place based on intersection potential with current grid state
@@ -22,17 +38,27 @@ public class nextWordSelector {
      * @return the wordKeeper object 
      */ 
     public static wordKeeper selectNextWord(ArrayList<wordKeeper> unusedWords, Grid grid) {
+        return selectNextWord(unusedWords, grid, Order.INTERSECTIONS);
+    }
+
+    /**
+     * method to select next word to place using the given ordering
+     * 
+     * @param unusedWords
+     * @param grid
+     * @param order - which criterion decides first, see Order
+     * @return the wordKeeper object 
+     */ 
+    public static wordKeeper selectNextWord(ArrayList<wordKeeper> unusedWords, Grid grid, Order order) {
         wordKeeper best = null;
         int bestScore = -1;
 
         // evaluate each unused word and calculate intersection score
         for (wordKeeper w : unusedWords) {
-            int score = countGridIntersections(w, grid);
+            int score = order == Order.CROSSINGS ? countGridCrossings(w, grid) : countGridIntersections(w, grid);
 
-            // updates best for every word that has a higher score
-            // picks longer word if tie occurs
-            if (score > bestScore || 
-                (score == bestScore && (best == null || w.word.length() > best.word.length()))) {
+            // updates best for every word that ranks higher, first in list order on a full tie
+            if (best == null || ranksHigher(order, score, w, bestScore, best)) {
                 bestScore = score;
                 best = w;
             }
@@ -40,6 +66,180 @@ public class nextWordSelector {
         return best;
     }
 
+    // compares two words by the given ordering, intersection score and word length
+    private static boolean ranksHigher(Order order, int score, wordKeeper w, int bestScore, wordKeeper best) {
+        int length = w.word.length(), bestLength = best.word.length();
+        if (order == Order.LONGEST) {
+            return length > bestLength || (length == bestLength && score > bestScore);
+        }
+        // picks longer word if tie occurs
+        return score > bestScore || (score == bestScore && length > bestLength);
+    }
+
+    // words in their original order, the position is the last tie-breaker (same as list order above)
+    private final wordKeeper[] words;
+    private final IdentityHashMap<wordKeeper, Integer> indexOf = new IdentityHashMap<>();
+    private final Grid grid;
+    private final Order order;
+
+    // score[i] = number of letters of words[i] currently on the grid (for CROSSINGS, ways to cross it),
+    // kept for placed words too
+    private final int[] score;
+
+    // per letter A-Z: the words holding it and how many times
+    private final int[][] wordsWithLetter = new int[26][];
+    private final int[][] timesInWord = new int[26][];
+
+    // weight of each letter when the scores were last brought up to date, see letterWeight
+    private final int[] weight = new int[26];
+
+    // max-heap of unused word indices, heapPos[i] = position of word i in the heap, -1 if placed
+    private final int[] heap;
+    private final int[] heapPos;
+    private int heapSize;
+
+    /**
+     * creates a selector for one search
+     * 
+     * @param unusedWords - words still to place, all start out unused
+     * @param grid - grid the search places words on, read on every selection
+     * @param order - ordering used by selectNextWord
+     */
+    public nextWordSelector(ArrayList<wordKeeper> unusedWords, Grid grid, Order order) {
+        int n = unusedWords.size();
+        this.words = unusedWords.toArray(new wordKeeper[0]);
+        this.grid = grid;
+        this.order = order;
+        this.score = new int[n];
+        this.heap = new int[n];
+        this.heapPos = new int[n];
+
+        // letter -> word lists, only A-Z letters count towards a score
+        int[] wordCount = new int[26];
+        for (int i = 0; i < n; i++) {
+            indexOf.put(words[i], i);
+            for (int m = words[i].letterMask; m != 0; m &= m - 1) wordCount[Integer.numberOfTrailingZeros(m)]++;
+        }
+        for (int l = 0; l < 26; l++) {
+            wordsWithLetter[l] = new int[wordCount[l]];
+            timesInWord[l] = new int[wordCount[l]];
+            weight[l] = letterWeight(l);
+        }
+        int[] fill = new int[26];
+        for (int i = 0; i < n; i++) {
+            for (int m = words[i].letterMask; m != 0; m &= m - 1) {
+                int l = Integer.numberOfTrailingZeros(m);
+                int times = words[i].letterCounts[l];
+                wordsWithLetter[l][fill[l]] = i;
+                timesInWord[l][fill[l]++] = times;
+                score[i] += times * weight[l];
+            }
+        }
+
+        for (int i = 0; i < n; i++) {
+            heapPos[i] = -1;
+            markUnplaced(words[i]);
+        }
+    }
+
+    /**
+     * selects the best unused word for the current grid
+     * 
+     * @return the wordKeeper object, null if every word is placed
+     */
+    public wordKeeper selectNextWord() {
+        refreshScores();
+        return heapSize == 0 ? null : words[heap[0]];
+    }
+
+    // takes a word out of the selection once the search places it
+    public void markPlaced(wordKeeper w) {
+        int i = indexOf.get(w);
+        int pos = heapPos[i];
+        if (pos < 0) return;
+
+        int last = heap[--heapSize];
+        heapPos[i] = -1;
+        if (pos == heapSize) return;
+
+        heap[pos] = last;
+        heapPos[last] = pos;
+        siftUp(pos);
+        siftDown(heapPos[last]);
+    }
+
+    // puts a word back into the selection when the search undoes its placement
+    public void markUnplaced(wordKeeper w) {
+        int i = indexOf.get(w);
+        if (heapPos[i] >= 0) return;
+
+        heap[heapSize] = i;
+        heapPos[i] = heapSize;
+        siftUp(heapSize++);
+    }
+
+    // what one occurrence of a letter in a word scores: cells holding it for CROSSINGS, else 1 if it is on the grid
+    private int letterWeight(int l) {
+        int count = grid.letterCount((char) ('A' + l));
+        if (order == Order.CROSSINGS) return count;
+        return count > 0 ? 1 : 0;
+    }
+
+    // rescores only the words holding a letter whose weight changed since last call
+    private void refreshScores() {
+        for (int l = 0; l < 26; l++) {
+            int now = letterWeight(l);
+            int delta = now - weight[l];
+            if (delta == 0) continue;
+            weight[l] = now;
+
+            for (int k = 0; k < wordsWithLetter[l].length; k++) {
+                int i = wordsWithLetter[l][k];
+                score[i] += timesInWord[l][k] * delta;
+
+                // a higher score can only move a word up, a lower one only down
+                if (heapPos[i] >= 0) {
+                    if (delta > 0) siftUp(heapPos[i]);
+                    else siftDown(heapPos[i]);
+                }
+            }
+        }
+    }
+
+    // true if word a should be picked before word b
+    private boolean before(int a, int b) {
+        if (score[a] == score[b] && words[a].word.length() == words[b].word.length()) return a < b;
+        return ranksHigher(order, score[a], words[a], score[b], words[b]);
+    }
+
+    private void siftUp(int pos) {
+        int i = heap[pos];
+        while (pos > 0) {
+            int parent = (pos - 1) / 2;
+            if (!before(i, heap[parent])) break;
+            heap[pos] = heap[parent];
+            heapPos[heap[pos]] = pos;
+            pos = parent;
+        }
+        heap[pos] = i;
+        heapPos[i] = pos;
+    }
+
+    private void siftDown(int pos) {
+        int i = heap[pos];
+        while (true) {
+            int child = 2 * pos + 1;
+            if (child >= heapSize) break;
+            if (child + 1 < heapSize && before(heap[child + 1], heap[child])) child++;
+            if (!before(heap[child], i)) break;
+            heap[pos] = heap[child];
+            heapPos[heap[pos]] = pos;
+            pos = child;
+        }
+        heap[pos] = i;
+        heapPos[i] = pos;
+    }
+
     /**
      * method to count letters in wordKeeper that exist on the grid
      * 
@@ -49,11 +249,29 @@ public class nextWordSelector {
      */
     private static int countGridIntersections(wordKeeper w, Grid grid) {
         int count = 0;
-        for (char ch : w.letters) {
-            if (grid.containsLetter(ch)) {
-                count++;
+        // each distinct letter once, weighted by how often the word holds it
+        for (int m = w.letterMask; m != 0; m &= m - 1) {
+            int l = Integer.numberOfTrailingZeros(m);
+            if (grid.letterCount((char) ('A' + l)) > 0) {
+                count += w.letterCounts[l];
             }
         }
         return count;
     }
+
+    /**
+     * method to count the ways wordKeeper can cross the grid
+     * 
+     * @param w - wordKeeper object
+     * @param grid
+     * @return - for every letter in w, the number of grid cells holding it, summed
+     */
+    private static int countGridCrossings(wordKeeper w, Grid grid) {
+        int count = 0;
+        for (int m = w.letterMask; m != 0; m &= m - 1) {
+            int l = Integer.numberOfTrailingZeros(m);
+            count += w.letterCounts[l] * grid.letterCount((char) ('A' + l));
+        }
+        return count;
+    }
 }
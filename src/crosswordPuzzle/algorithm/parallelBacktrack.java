@@ -0,0 +1,193 @@
+package crosswordPuzzle.algorithm;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import crosswordPuzzle.core.*;
+
+/**
+ * runs the backtracking search on a fork-join pool
+ *
+ * strategy:
+ *  - the top of the search tree is split into tasks, each working on its own copy of the grid and word lists
+ *  - a node is split while its share of the task target (threads * TASKS_PER_THREAD) is more than one,
+ *    so narrow levels are split deeper and wide levels stop splitting early
+ *  - below that, each task runs the normal depth-first search
+ *  - every task has a path: the candidate index taken at each split level
+ *    the first success cancels every task whose path comes after its own, earlier tasks keep going
+ *  - the layout kept is the one with the smallest path, which is the layout the single-threaded
+ *    search finds, so a seeded search gives the same result with any number of threads
+ */
+class parallelBacktrack {
+
+    // tasks per thread to aim for, gives the pool room to balance uneven branches
+    private static final int TASKS_PER_THREAD = 8;
+
+    /**
+     * searches for a layout of the unused words on a pool of run.options.threads workers
+     * the given grid and lists are only read, every task works on copies
+     * budgets, interruption of the calling thread and the best partial layout go through `run`
+     *
+     * @param unusedWords - list of words yet to be placed
+     * @param placedWordList - list of words already placed
+     * @param grid - current state of the grid
+     * @param run - state shared by every task of this search
+     * @return the complete placed word list of the winning layout, null if no layout was found
+     */
+    static ArrayList<placedWord> search(ArrayList<wordKeeper> unusedWords, ArrayList<placedWord> placedWordList,
+                                        Grid grid, searchRun run) {
+        int threads = run.options.threads;
+        Race race = new Race();
+        BranchTask root = new BranchTask(race, run, new int[0], threads * TASKS_PER_THREAD,
+                new Grid(grid), new ArrayList<>(placedWordList), new ArrayList<>(unusedWords), null, -1);
+
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            pool.submit(root).get();
+        } catch (InterruptedException e) {
+            // stop the workers and wait for them to unwind before handing back the result
+            run.cancel();
+            root.quietlyJoin();
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) throw (RuntimeException) e.getCause();
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+
+        return race.winner;
+    }
+
+    /**
+     * shared result of one parallel search: the smallest successful path and its placements
+     */
+    private static class Race {
+        private volatile int[] bestPath;
+        private volatile ArrayList<placedWord> winner;
+
+        synchronized void report(int[] path, ArrayList<placedWord> placed) {
+            if (bestPath == null || compare(path, bestPath) < 0) {
+                winner = new ArrayList<>(placed);
+                bestPath = path;
+            }
+        }
+
+        // true once a success exists whose path comes before every path under the given prefix
+        boolean superseded(int[] prefix) {
+            int[] best = bestPath;
+            return best != null && compare(prefix, best) > 0;
+        }
+
+        // compares paths over their common length, a prefix compares equal to its extensions
+        private static int compare(int[] a, int[] b) {
+            int n = Math.min(a.length, b.length);
+            for (int i = 0; i < n; i++) {
+                if (a[i] != b[i]) return Integer.compare(a[i], b[i]);
+            }
+            return 0;
+        }
+    }
+
+    /**
+     * one subtree of the search
+     * the task receives its parent's state plus the placement leading to it and only copies the
+     * state when it actually starts, so tasks cancelled before they run cost nothing
+     */
+    private static class BranchTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final Race race;
+        private final searchRun run;
+        private final searchOptions options;
+        private final int[] path;
+        private final int target;
+
+        private Grid grid;
+        private ArrayList<placedWord> placed;
+        private ArrayList<wordKeeper> unused;
+        private final placedWord move;
+        private final int moveWordIndex;
+
+        BranchTask(Race race, searchRun run, int[] path, int target,
+                   Grid grid, ArrayList<placedWord> placed, ArrayList<wordKeeper> unused,
+                   placedWord move, int moveWordIndex) {
+            this.race = race;
+            this.run = run;
+            this.options = run.options;
+            this.path = path;
+            this.target = target;
+            this.grid = grid;
+            this.placed = placed;
+            this.unused = unused;
+            this.move = move;
+            this.moveWordIndex = moveWordIndex;
+        }
+
+        @Override
+        protected void compute() {
+            if (race.superseded(path) || run.stopped()) return;
+
+            // the task's own work (its placement, and the node when it splits) counts into a recorder of its own,
+            // published before any search below it starts; those searches have theirs
+            searchMetrics.Recorder metrics = options.metrics == null ? null : options.metrics.recorder();
+
+            // take a private copy of the parent's state and apply this branch's placement
+            if (move != null) {
+                grid = new Grid(grid);
+                long expansions = grid.getExpansions();
+                grid.wordPlacer(move);
+                if (metrics != null) metrics.expansions += grid.getExpansions() - expansions;
+                placed = new ArrayList<>(placed);
+                placed.add(move);
+                unused = new ArrayList<>(unused);
+                unused.remove(moveWordIndex);
+            }
+
+            if (unused.isEmpty() || target <= 1) publish(metrics);
+            if (unused.isEmpty()) {
+                race.report(path, placed);
+                return;
+            }
+
+            if (target <= 1) {
+                // plain depth-first search of this task's subtree, gives up as soon as the task is superseded
+                if (new searchEngine(unused, placed, grid, run, () -> race.superseded(path)).search()) {
+                    race.report(path, placed);
+                }
+                return;
+            }
+
+            if (metrics != null) metrics.nodes++;
+            if (!run.visit()) {
+                publish(metrics);
+                return;
+            }
+            run.offer(placed, grid);
+
+            wordKeeper nextWord = nextWordSelector.selectNextWord(unused, grid, options.wordOrder);
+            placementBuffer candidates = backtrack.orderedPlacements(nextWord, grid, placed.size(), options,
+                    new placementBuffer(), metrics);
+            publish(metrics);
+            int n = candidates.size();
+            if (n == 0) return;
+
+            int wordIndex = unused.indexOf(nextWord);
+            int childTarget = (target + n - 1) / n;
+            BranchTask[] children = new BranchTask[n];
+            for (int i = 0; i < n; i++) {
+                int[] childPath = Arrays.copyOf(path, path.length + 1);
+                childPath[path.length] = i;
+                children[i] = new BranchTask(race, run, childPath, childTarget,
+                        grid, placed, unused, candidates.toPlacedWord(nextWord, i), wordIndex);
+            }
+            invokeAll(children);
+        }
+
+        private void publish(searchMetrics.Recorder metrics) {
+            if (metrics != null) options.metrics.publish(metrics);
+        }
+    }
+}
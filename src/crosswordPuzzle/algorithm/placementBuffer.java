@@ -0,0 +1,88 @@
+package crosswordPuzzle.algorithm;
+
+import java.util.Arrays;
+import java.util.Random;
+import crosswordPuzzle.core.*;
+
+/**
+ * packed list of candidate placements for a single word
+ *
+ * each candidate is stored as one long instead of a placedWord object:
+ *  - bits 48-62: overlap score, inverted so that a higher score sorts first
+ *  - bits 32-47: row (biased so negative rows still sort correctly)
+ *  - bits 16-31: column (biased)
+ *  - bit 0: orientation, 0 = horizontal, 1 = vertical
+ *
+ * sorting the raw keys therefore orders candidates by most overlaps, then row, column, horizontal first
+ */
+class placementBuffer {
+    private static final int BIAS = 1 << 15;
+    private static final int MAX_SCORE = 0x7FFF;
+
+    private long[] keys;
+    private int size;
+
+    placementBuffer() {
+        this.keys = new long[16];
+    }
+
+    // empties the buffer but keeps its capacity
+    void clear() {
+        size = 0;
+    }
+
+    void add(int row, int col, boolean vertical, int score) {
+        if (size == keys.length) keys = Arrays.copyOf(keys, size * 2);
+        keys[size++] = ((long) (MAX_SCORE - Math.min(score, MAX_SCORE)) << 48)
+                | ((long) (row + BIAS) << 32)
+                | ((long) (col + BIAS) << 16)
+                | (vertical ? 1 : 0);
+    }
+
+    // sorts candidates by most overlaps, ties broken by row, column, then horizontal before vertical
+    void sort() {
+        Arrays.sort(keys, 0, size);
+    }
+
+    // shuffles candidates within each run of equal score, the score order itself is kept
+    void shuffleTies(Random rnd) {
+        int start = 0;
+        while (start < size) {
+            int end = start + 1;
+            while (end < size && (keys[end] >>> 48) == (keys[start] >>> 48)) end++;
+
+            for (int i = end - 1; i > start; i--) {
+                int j = start + rnd.nextInt(i - start + 1);
+                long tmp = keys[i];
+                keys[i] = keys[j];
+                keys[j] = tmp;
+            }
+            start = end;
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    int row(int i) {
+        return (int) ((keys[i] >>> 32) & 0xFFFF) - BIAS;
+    }
+
+    int col(int i) {
+        return (int) ((keys[i] >>> 16) & 0xFFFF) - BIAS;
+    }
+
+    boolean isVertical(int i) {
+        return (keys[i] & 1) != 0;
+    }
+
+    int score(int i) {
+        return MAX_SCORE - (int) (keys[i] >>> 48);
+    }
+
+    // materializes the i-th candidate, only done for placements actually written to the grid
+    placedWord toPlacedWord(wordKeeper w, int i) {
+        return new placedWord(w, row(i), col(i), isVertical(i));
+    }
+}
@@ -1,6 +1,5 @@
 package crosswordPuzzle.algorithm;
 
-import java.util.ArrayList;
 import crosswordPuzzle.core.*;
 
 
@@ -13,40 +12,86 @@ import crosswordPuzzle.core.*;
  */
 public class placementEvaluator {
     
+    // scores returned by placementScore for a placement that fails a constraint, one per rule
+    // every valid placement scores at least 1, so any negative score means invalid
+    static final int CONFLICT = -1;
+    static final int ADJACENCY = -2;
+    static final int BOUNDARY = -3;
+    static final int NO_OVERLAP = -4;
+
+    /**
+     * generates the candidate placements for a given word on the current grid
+     * uses the crossing-driven generation, see `generateCrossingPlacements`
+     * 
+     * @param w - selected word to be checked for placements
+     * @param grid - crossword grid
+     * @return - candidate placements sorted by number of overlaps with existing grid letters 
+     */
+    static placementBuffer generatePlacements(wordKeeper w, Grid grid) {
+        placementBuffer candidates = new placementBuffer();
+        generateCrossingPlacements(w, grid, candidates, null);
+        return candidates;
+    }
+
     /**
-     * Systematically explores and tries every placement and orientation for a given word on the current grid
-     * calls `IsValidPlacement` to validate whether candidate placement passes constraints
-     * sorts list by most overlap count  
+     * Derives candidate placements from the letters already on the grid instead of sweeping every cell
+     * a valid placement must overlap an existing letter, so for every letter of the word and every grid
+     * cell holding that same letter, only the horizontal and vertical starts that cross there are tried
+     * 
+     * finds every start a sweep over all cells would, in O(intersections * len) instead of O(rows * cols * len)
      * 
      * @param w - selected word to be checked for placements
      * @param grid - crossword grid
-     * @return - list of candidate placements sorted by number of overlaps with existing grid letters 
+     * @param candidates - buffer the sorted candidates are written to, cleared first
+     * @param metrics - counts the rejected candidates per rule, null when metrics are off
      */
-    static ArrayList<placedWord> generatePlacements(wordKeeper w, Grid grid) {        
-        ArrayList<placedWord> candidates = new ArrayList<>();
-        int rows = grid.getRows(), cols = grid.getCols();
-
-        // iterate through each cell in grid
-        for (int r = 0; r < rows; r++) {
-            for (int c = 0; c < cols; c++) {
-                // horizontal orientation
-                placedWord wordH = new placedWord(w, r, c, false);
-                if (isValidPlacement(wordH, grid)) candidates.add(wordH);
-
-                // vertical orientation
-                placedWord wordV = new placedWord(w, r, c, true);
-                if (isValidPlacement(wordV, grid)) candidates.add(wordV);
+    static void generateCrossingPlacements(wordKeeper w, Grid grid, placementBuffer candidates,
+                                           searchMetrics.Recorder metrics) {
+        candidates.clear();
+
+        for (int i = 0; i < w.letters.length; i++) {
+            char ch = w.letters[i];
+            for (int k = 0; k < grid.letterCount(ch); k++) {
+                int r = grid.letterRow(ch, k);
+                int c = grid.letterCol(ch, k);
+
+                // a start may lie above/left of the grid, the grid grows there when the word is placed
+                addCrossing(w, r, c - i, false, i, grid, candidates, metrics);
+                addCrossing(w, r - i, c, true, i, grid, candidates, metrics);
             }
         }
 
-        // sort candidates by most overlaps with existing grid letters
-        candidates.sort((a, b) -> countOverlaps(b, grid) - countOverlaps(a, grid));
-        return candidates;
+        candidates.sort();
+    }
+
+    // validates a start derived from the crossing at letter index `crossing` and adds it to the buffer
+    // a start crossing several letters is only kept for its first crossing, so it is added once
+    private static void addCrossing(wordKeeper w, int row, int col, boolean vertical, int crossing,
+                                    Grid grid, placementBuffer candidates, searchMetrics.Recorder metrics) {
+        for (int j = 0; j < crossing; j++) {
+            int r = vertical ? row + j : row;
+            int c = vertical ? col : col + j;
+            if (grid.inBounds(r, c) && grid.getCell(r, c) == w.letters[j]) return;
+        }
+
+        int score = placementScore(w, row, col, vertical, grid);
+        if (score > 0) candidates.add(row, col, vertical, score);
+        else if (metrics != null) metrics.rejected(score);
     }
 
     /**
      * method that validates candidate placement through constraints
      * 
+     * @param pw - word object being checked for constraints
+     * @param grid - current grid as reference
+     * @return true if the placement passes every constraint in `placementScore`
+     */
+    static boolean isValidPlacement(placedWord pw, Grid grid) {
+        return placementScore(pw.word, pw.row, pw.col, pw.isVertical, grid) > 0;
+    }
+
+    /**
+     * validates candidate placement through constraints and counts its overlaps in the same pass
      * 
      * constraints:
      * - must have at least one overlap with the current grid
@@ -54,58 +99,54 @@ public class placementEvaluator {
      * - must not have word adjacency (words toching side by side)
      * - boundaries from start to end must be empty (avoids words to be unintentionally combined)
      * 
-     * @param pw - word object being checked for constraints
+     * @param w - word being checked for constraints
+     * @param row - start row of the candidate
+     * @param col - start column of the candidate
+     * @param vertical - orientation of the candidate
      * @param grid - current grid as reference
-     * @return
+     * @return number of letters overlapping existing grid letters, or the negative code of the first rule failed
      */
-    static boolean isValidPlacement(placedWord pw, Grid grid) {
-        int len = pw.word.letters.length;
-        boolean hasOverlap = false;
+    static int placementScore(wordKeeper w, int row, int col, boolean vertical, Grid grid) {
+        int len = w.letters.length;
+        int overlaps = 0;
 
         for (int i = 0; i < len; i++) {
-            int r = pw.isVertical ? pw.row + i : pw.row;
-            int c = pw.isVertical ? pw.col : pw.col + i;
+            int r = vertical ? row + i : row;
+            int c = vertical ? col : col + i;
 
             // if word placement length goes out of bounds, skip
             // prevents out of bounds error
             if (!grid.inBounds(r, c)) continue;
 
             char current = grid.getCell(r, c);
-            char letter = pw.word.letters[i];
+            char letter = w.letters[i];
 
             // conflict: cell occupied by a different letter
-            if (current != '-' && current != letter) return false;
+            if (current != '-' && current != letter) return CONFLICT;
 
             // overlap check
-            if (current == letter) hasOverlap = true;
+            if (current == letter) overlaps++;
 
             // adjacency check
-            if (current == '-' && grid.hasIllegalSideAdjacency(r, c, pw.isVertical)) return false;
+            if (current == '-' && grid.hasIllegalSideAdjacency(r, c, vertical)) return ADJACENCY;
         }
 
         // boundary cells before start and after end must be empty
-        if (!grid.checkBoundary(pw)) return false;
+        if (!grid.checkBoundary(row, col, len, vertical)) return BOUNDARY;
 
         // word must overlap at least one letter
-        if (!hasOverlap) return false;
+        if (overlaps == 0) return NO_OVERLAP;
 
-        return true;
+        return overlaps;
     }
 
-    /**
-     * Count how many letters of the placed word overlap with existing letters on the grid
-     */
-    static int countOverlaps(placedWord pw, Grid grid) {
-        int overlaps = 0;
-        for (int i = 0; i < pw.word.letters.length; i++) {
-            int r = pw.isVertical ? pw.row + i : pw.row;
-            int c = pw.isVertical ? pw.col : pw.col + i;
-
-            // bounds guard
-            if (r < 0 || r >= grid.getRows() || c < 0 || c >= grid.getCols()) continue;
-
-            if (grid.getCell(r, c) == pw.word.letters[i]) overlaps++;
+    // rule behind a negative score of placementScore
+    static searchMetrics.Rule rejectedRule(int score) {
+        switch (score) {
+            case CONFLICT: return searchMetrics.Rule.CONFLICT;
+            case ADJACENCY: return searchMetrics.Rule.ADJACENCY;
+            case BOUNDARY: return searchMetrics.Rule.BOUNDARY;
+            default: return searchMetrics.Rule.NO_OVERLAP;
         }
-        return overlaps;
     }
 }
@@ -0,0 +1,225 @@
+package crosswordPuzzle.algorithm;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import crosswordPuzzle.core.*;
+
+/**
+ * races several search strategies against each other and keeps the first layout found
+ *
+ * how well anchorSelector and nextWordSelector do depends heavily on the word list, some lists
+ * solve instantly under one strategy and thrash under another, so:
+ *  - each strategy picks its own anchor, builds its own grid and runs its own single-threaded search
+ *  - the first strategy to place every word wins and the others are interrupted
+ *  - the whole race shares one time budget: every search gets what is left of it when it starts, and once
+ *    it runs out the race stops waiting and interrupts whatever is still searching
+ *  - the outcome names the winning strategy and the strategies that ran out of time, so defaults can be
+ *    tuned from real runs
+ */
+public class portfolioSolver {
+
+    // budget of the whole race unless one is given, same as interactive generation
+    static final long DEFAULT_TIME_LIMIT_MILLIS = 60_000;
+
+    /**
+     * one way of solving a word list: an anchor strategy plus search settings
+     */
+    public static class Strategy {
+        public final String name;
+        public final anchorSelector.Strategy anchor;
+        public final searchOptions options;
+
+        public Strategy(String name, anchorSelector.Strategy anchor, searchOptions options) {
+            this.name = name;
+            this.anchor = anchor;
+            this.options = options;
+        }
+
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+
+    /**
+     * how a race ended
+     * strategy, grid and placedWords belong to the winner and are null if no strategy placed every word;
+     * the grid is already trimmed
+     */
+    public static class Outcome {
+        public final Strategy strategy;
+        public final Grid grid;
+        public final ArrayList<placedWord> placedWords;
+        public final long millis;
+
+        // strategies whose search hit the time budget, or that were still searching or waiting when it ran out
+        public final ArrayList<Strategy> outOfTime;
+
+        Outcome(Strategy strategy, Grid grid, ArrayList<placedWord> placedWords, long millis,
+                ArrayList<Strategy> outOfTime) {
+            this.strategy = strategy;
+            this.grid = grid;
+            this.placedWords = placedWords;
+            this.millis = millis;
+            this.outOfTime = outOfTime;
+        }
+
+        public boolean solved() {
+            return strategy != null;
+        }
+    }
+
+    /**
+     * builds a portfolio of the given size
+     * the first strategies vary the anchor and the word order, the rest are seeded shuffles of the default
+     *
+     * @param size - number of strategies
+     * @return list of strategies, the default pipeline first
+     */
+    public static ArrayList<Strategy> defaultPortfolio(int size) {
+        ArrayList<Strategy> portfolio = new ArrayList<>();
+
+        portfolio.add(new Strategy("frequency-anchor", anchorSelector.Strategy.LETTER_FREQUENCY, new searchOptions()));
+        portfolio.add(new Strategy("longest-anchor", anchorSelector.Strategy.LONGEST, new searchOptions()));
+        portfolio.add(new Strategy("connected-anchor", anchorSelector.Strategy.MOST_CONNECTED, new searchOptions()));
+
+        searchOptions longestFirst = new searchOptions();
+        longestFirst.wordOrder = nextWordSelector.Order.LONGEST;
+        portfolio.add(new Strategy("longest-words-first", anchorSelector.Strategy.LETTER_FREQUENCY, longestFirst));
+
+        searchOptions mostCrossings = new searchOptions();
+        mostCrossings.wordOrder = nextWordSelector.Order.CROSSINGS;
+        portfolio.add(new Strategy("most-crossings-first", anchorSelector.Strategy.MOST_CONNECTED, mostCrossings));
+
+        for (int seed = 1; portfolio.size() < size; seed++) {
+            portfolio.add(new Strategy("shuffled-ties-" + seed, anchorSelector.Strategy.LETTER_FREQUENCY,
+                    new searchOptions(1, seed)));
+        }
+
+        while (portfolio.size() > size) portfolio.remove(portfolio.size() - 1);
+        return portfolio;
+    }
+
+    /**
+     * solves the word list with a default portfolio, one strategy per available processor (at least 4),
+     * within DEFAULT_TIME_LIMIT_MILLIS
+     *
+     * @param words - all words of the puzzle
+     * @return how the race ended, see Outcome
+     */
+    public static Outcome solve(ArrayList<wordKeeper> words) {
+        int threads = Math.max(4, Runtime.getRuntime().availableProcessors());
+        return solve(words, defaultPortfolio(threads), threads, DEFAULT_TIME_LIMIT_MILLIS);
+    }
+
+    /**
+     * runs every strategy against its own grid and returns the first complete layout
+     * strategies beyond the thread count start as earlier ones finish
+     *
+     * @param words - all words of the puzzle
+     * @param strategies - strategies to race
+     * @param threads - number of strategies running at the same time
+     * @param timeLimitMillis - budget of the whole race, 0 for none
+     * @return how the race ended, see Outcome
+     */
+    public static Outcome solve(ArrayList<wordKeeper> words, List<Strategy> strategies, int threads,
+                                long timeLimitMillis) {
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.MILLISECONDS.toNanos(timeLimitMillis);
+        List<Strategy> outOfTime = Collections.synchronizedList(new ArrayList<>());
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CompletionService<Outcome> race = new ExecutorCompletionService<>(pool);
+        Map<Future<Outcome>, Strategy> running = new IdentityHashMap<>();
+
+        try {
+            for (Strategy s : strategies) {
+                running.put(race.submit(() -> runStrategy(words, s, start, timeLimitMillis > 0 ? deadline : 0,
+                        outOfTime)), s);
+            }
+
+            while (!running.isEmpty()) {
+                Future<Outcome> done;
+                if (timeLimitMillis > 0) {
+                    done = race.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                    if (done == null) break;
+                } else {
+                    done = race.take();
+                }
+                Strategy s = running.remove(done);
+                try {
+                    Outcome outcome = done.get();
+                    if (outcome != null) return winner(outcome, outOfTime);
+                } catch (ExecutionException e) {
+                    // a failing strategy only drops out of the race
+                    System.err.println("Strategy " + s + " failed: " + e.getCause());
+                }
+            }
+
+            // budget ran out: everything still searching or waiting is out of time too
+            for (Strategy s : strategies) {
+                if (running.containsValue(s) && !outOfTime.contains(s)) outOfTime.add(s);
+            }
+            return new Outcome(null, null, null, (System.nanoTime() - start) / 1_000_000, snapshot(outOfTime));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new Outcome(null, null, null, (System.nanoTime() - start) / 1_000_000, snapshot(outOfTime));
+        } finally {
+            // interrupts the strategies still searching
+            pool.shutdownNow();
+        }
+    }
+
+    // the winner's outcome with the strategies that ran out of time before it won
+    private static Outcome winner(Outcome outcome, List<Strategy> outOfTime) {
+        return new Outcome(outcome.strategy, outcome.grid, outcome.placedWords, outcome.millis, snapshot(outOfTime));
+    }
+
+    private static ArrayList<Strategy> snapshot(List<Strategy> strategies) {
+        synchronized (strategies) {
+            return new ArrayList<>(strategies);
+        }
+    }
+
+    /**
+     * builds a grid with the strategy's anchor and searches it with what is left of the budget
+     *
+     * @param deadline - System.nanoTime() the race ends at, 0 for none
+     * @param outOfTime - the strategy is added when its search hits the budget
+     * @return the complete layout, null if the search fails, runs out of time or is interrupted
+     */
+    private static Outcome runStrategy(ArrayList<wordKeeper> words, Strategy s, long start, long deadline,
+                                       List<Strategy> outOfTime) {
+        searchOptions options = s.options;
+        if (deadline != 0) {
+            long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+            if (remaining <= 0) {
+                outOfTime.add(s);
+                return null;
+            }
+            options = new searchOptions(s.options);
+            if (options.timeLimitMillis == 0 || options.timeLimitMillis > remaining) options.timeLimitMillis = remaining;
+        }
+
+        ArrayList<placedWord> placedWordList = new ArrayList<>();
+        wordKeeper anchor = anchorSelector.findAnchor(words, s.anchor);
+        Grid grid = generateNewPuzzle.startGrid(anchor, placedWordList);
+
+        ArrayList<wordKeeper> unusedWords = new ArrayList<>(words);
+        unusedWords.remove(anchor);
+
+        searchResult result = backtrack.placeWords(unusedWords, placedWordList, grid, options);
+        if (result.status == searchResult.Status.TIME_LIMIT) outOfTime.add(s);
+        if (!result.solved()) return null;
+        return new Outcome(s, grid, placedWordList, (System.nanoTime() - start) / 1_000_000, null);
+    }
+}
@@ -0,0 +1,192 @@
+package crosswordPuzzle.algorithm;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import crosswordPuzzle.core.*;
+
+/**
+ * thread-safe puzzle generation for library use, with no console input or output
+ *
+ * each request gets its own grid and word lists, so any number of threads may call `generate` at once; the
+ * work itself is bounded:
+ *  - at most `threads` puzzles are laid out at the same time
+ *  - at most `queueCapacity` further requests wait; beyond that a request is rejected straight away, its
+ *    future failing with RejectedExecutionException, so callers can back off instead of piling up work
+ *  - cancelling a future drops a waiting request from the queue or interrupts its running search
+ *
+ * a future completes normally once the search ends, with the best partial layout if not every word could be
+ * placed (see generatedPuzzle.solved), and fails with IllegalArgumentException for word lists that cannot be
+ * used; nothing is saved, the caller decides what to do with the layout
+ *
+ * given a layoutCache, a request for words laid out before completes with the cached layout and the new clues
+ */
+public class puzzleGenerator implements AutoCloseable {
+
+    // queued requests per worker thread unless given
+    private static final int QUEUE_PER_THREAD = 4;
+
+    // search budget per request unless the request brings its own options
+    private static final long DEFAULT_TIME_LIMIT_MILLIS = 60_000;
+
+    private static final AtomicInteger generators = new AtomicInteger();
+
+    private final ThreadPoolExecutor pool;
+    private final layoutCache cache;
+
+    /**
+     * one worker per available processor and QUEUE_PER_THREAD waiting requests per worker
+     */
+    public puzzleGenerator() {
+        this(Runtime.getRuntime().availableProcessors(),
+                Runtime.getRuntime().availableProcessors() * QUEUE_PER_THREAD);
+    }
+
+    /**
+     * @param threads - puzzles laid out at the same time
+     * @param queueCapacity - requests that may wait for a worker before new ones are rejected
+     */
+    public puzzleGenerator(int threads, int queueCapacity) {
+        this(threads, queueCapacity, null);
+    }
+
+    /**
+     * @param threads - puzzles laid out at the same time
+     * @param queueCapacity - requests that may wait for a worker before new ones are rejected
+     * @param cache - layouts of earlier word lists, may be shared with other generators; null to always search
+     */
+    public puzzleGenerator(int threads, int queueCapacity, layoutCache cache) {
+        this.cache = cache;
+        if (threads < 1) throw new IllegalArgumentException("threads must be at least 1");
+        if (queueCapacity < 1) throw new IllegalArgumentException("queueCapacity must be at least 1");
+
+        int id = generators.incrementAndGet();
+        AtomicInteger workers = new AtomicInteger();
+        ThreadFactory factory = r -> {
+            Thread t = new Thread(r, "puzzle-generator-" + id + "-" + workers.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        };
+        pool = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), factory, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * requests a puzzle with the default search settings and a 60 second search budget
+     *
+     * @param title - title of the puzzle
+     * @param words - words of the puzzle, checked like typed input
+     * @param clues - clue for each word, in the same order
+     * @return future of the layout
+     */
+    public CompletableFuture<generatedPuzzle> generate(String title, List<String> words, List<String> clues) {
+        searchOptions options = new searchOptions();
+        options.timeLimitMillis = DEFAULT_TIME_LIMIT_MILLIS;
+        return generate(title, words, clues, options);
+    }
+
+    /**
+     * requests a puzzle with the given search settings
+     * options.threads above 1 makes the request use a search pool of its own on top of this generator's worker
+     *
+     * @param title - title of the puzzle
+     * @param words - words of the puzzle, checked like typed input
+     * @param clues - clue for each word, in the same order
+     * @param options - search settings, must not be changed while the request runs
+     * @return future of the layout
+     */
+    public CompletableFuture<generatedPuzzle> generate(String title, List<String> words, List<String> clues,
+                                                       searchOptions options) {
+        CompletableFuture<generatedPuzzle> result = new CompletableFuture<>();
+
+        if (words.size() != clues.size()) {
+            result.completeExceptionally(new IllegalArgumentException("every word needs a clue"));
+            return result;
+        }
+        String problem = generateNewPuzzle.checkWords(words);
+        if (problem != null) {
+            result.completeExceptionally(new IllegalArgumentException(problem));
+            return result;
+        }
+
+        // the word list is built now, the caller may reuse its lists
+        ArrayList<wordKeeper> allWords = generateNewPuzzle.buildWordList(words, clues);
+
+        // words laid out before complete right away, without waiting for a worker
+        if (cache != null) {
+            generatedPuzzle cached = cache.lookup(title, allWords);
+            if (cached != null) {
+                result.complete(cached);
+                return result;
+            }
+        }
+
+        Request task = new Request(result, () -> {
+            generatedPuzzle puzzle = generateNewPuzzle.layOut(title, allWords, options);
+            if (cache != null) cache.store(puzzle);
+            return puzzle;
+        });
+
+        try {
+            pool.execute(task);
+        } catch (RejectedExecutionException e) {
+            result.completeExceptionally(e);
+            return result;
+        }
+
+        // cancelling the future frees its queue slot or interrupts the search, which then stops as CANCELLED
+        result.whenComplete((puzzle, error) -> {
+            if (result.isCancelled()) {
+                task.cancel(true);
+                pool.remove(task);
+            }
+        });
+        return result;
+    }
+
+    // requests waiting for a worker
+    public int queued() {
+        return pool.getQueue().size();
+    }
+
+    // requests being laid out right now
+    public int running() {
+        return pool.getActiveCount();
+    }
+
+    /**
+     * stops taking requests, cancels the waiting ones and interrupts the running searches
+     */
+    @Override
+    public void close() {
+        for (Runnable r : pool.shutdownNow()) {
+            ((Request) r).result.cancel(false);
+        }
+    }
+
+    /**
+     * queued work of one request, completing the caller's future when it runs
+     */
+    private static class Request extends FutureTask<Void> {
+        final CompletableFuture<generatedPuzzle> result;
+
+        Request(CompletableFuture<generatedPuzzle> result, Supplier<generatedPuzzle> work) {
+            super(() -> {
+                try {
+                    if (!result.isDone()) result.complete(work.get());
+                } catch (Throwable t) {
+                    result.completeExceptionally(t);
+                }
+            }, null);
+            this.result = result;
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package crosswordPuzzle.algorithm;
+
+import java.util.ArrayList;
+import java.util.function.BooleanSupplier;
+import crosswordPuzzle.core.*;
+
+/**
+ * depth-first backtracking search driven by an explicit stack instead of recursion
+ *
+ * every depth has one frame: the word chosen there, its candidate placements and a cursor to the next
+ * candidate to try; candidate buffers belong to their depth and are reused on every visit, so memory
+ * grows with the search depth and never with the number of candidates generated over the whole search
+ *
+ * unused words are tracked by the nextWordSelector heap, so placing and undoing a word does not touch
+ * the caller's unusedWords list
+ *
+ * with run.options.metrics set the engine counts into a recorder of its own and publishes it to the
+ * metrics every searchMetrics.PUBLISH_INTERVAL nodes and when the search ends, otherwise counting costs a null check
+ */
+class searchEngine {
+    private final Grid grid;
+    private final ArrayList<placedWord> placedWordList;
+    private final nextWordSelector selector;
+    private final searchRun run;
+    private final BooleanSupplier abandoned;
+    private final int wordsToPlace;
+    private final int startDepth;
+    private final searchMetrics.Recorder metrics;
+    private final forwardChecker checker;
+
+    // grid expansions already published
+    private long publishedExpansions;
+
+    private final wordKeeper[] frameWord;
+    private final placementBuffer[] frameCandidates;
+    private final int[] frameCursor;
+
+    /**
+     * @param unusedWords - words to place, only read
+     * @param placedWordList - words already placed, the search appends to it and undoes its own additions
+     * @param grid - current state of the grid
+     * @param run - budgets and best partial layout of this search
+     * @param abandoned - extra stop condition checked at every node, e.g. a superseded parallel task
+     */
+    searchEngine(ArrayList<wordKeeper> unusedWords, ArrayList<placedWord> placedWordList, Grid grid,
+                 searchRun run, BooleanSupplier abandoned) {
+        this.grid = grid;
+        this.placedWordList = placedWordList;
+        this.selector = new nextWordSelector(unusedWords, grid, run.options.wordOrder);
+        this.run = run;
+        this.abandoned = abandoned;
+        this.wordsToPlace = unusedWords.size();
+        this.startDepth = placedWordList.size();
+        this.metrics = run.options.metrics == null ? null : run.options.metrics.recorder();
+        this.checker = run.options.forwardChecking ? new forwardChecker(unusedWords, grid) : null;
+
+        this.frameWord = new wordKeeper[wordsToPlace];
+        this.frameCandidates = new placementBuffer[wordsToPlace];
+        this.frameCursor = new int[wordsToPlace];
+    }
+
+    /**
+     * runs the search
+     * on success the grid and placedWordList hold the full layout, otherwise everything the search placed
+     * has been undone again (stopping early for a budget or abandonment also unwinds completely)
+     *
+     * @return true if every word was placed
+     */
+    boolean search() {
+        if (metrics == null) return runFrames();
+
+        publishedExpansions = grid.getExpansions();
+        boolean success = runFrames();
+        publish();
+        return success;
+    }
+
+    // adds the counts since the last publish to the metrics
+    private void publish() {
+        metrics.expansions += grid.getExpansions() - publishedExpansions;
+        publishedExpansions = grid.getExpansions();
+        run.options.metrics.publish(metrics);
+    }
+
+    private boolean runFrames() {
+        if (wordsToPlace == 0) return true;
+
+        int depth = 0;
+        enter(depth);
+
+        while (depth >= 0) {
+            wordKeeper word = frameWord[depth];
+            placementBuffer candidates = frameCandidates[depth];
+
+            // undo this frame's previous placement before moving on to the next one
+            if (frameCursor[depth] > 0) {
+                long t = clock();
+                placedWord last = placedWordList.remove(placedWordList.size() - 1);
+                grid.removeWord(last);
+                selector.markUnplaced(word);
+                if (checker != null) checker.removed(last);
+                time(searchMetrics.Phase.UNDO, t);
+            }
+
+            // frame exhausted (or search stopped): backtrack to the previous word
+            if (frameCursor[depth] == candidates.size() || stopped()) {
+                if (metrics != null && !stopped()) metrics.backtracked(startDepth + depth);
+                depth--;
+                continue;
+            }
+
+            long t = clock();
+            placedWord pw = candidates.toPlacedWord(word, frameCursor[depth]++);
+            grid.wordPlacer(pw);
+            placedWordList.add(pw);
+            selector.markPlaced(word);
+            if (checker != null) checker.placed(pw);
+            time(searchMetrics.Phase.PLACEMENT, t);
+
+            if (depth + 1 == wordsToPlace) return true;
+
+            // some unused word lost its last chance of a placement: try the next candidate right away
+            if (checker != null && checker.deadEnd()) {
+                if (metrics != null) metrics.prunes++;
+                continue;
+            }
+            enter(++depth);
+        }
+        return false;
+    }
+
+    // opens the frame for a new depth: picks the next word and generates its candidates
+    // a node visited after the search stopped gets no candidates, so it is popped straight away
+    private void enter(int depth) {
+        if (frameCandidates[depth] == null) frameCandidates[depth] = new placementBuffer();
+        frameCandidates[depth].clear();
+        frameCursor[depth] = 0;
+
+        if (abandoned.getAsBoolean()) return;
+        if (metrics != null) {
+            metrics.nodes++;
+            if (metrics.due()) publish();
+        }
+        if (!run.visit()) return;
+        run.offer(placedWordList, grid);
+
+        long t = clock();
+        frameWord[depth] = selector.selectNextWord();
+        t = time(searchMetrics.Phase.SELECTION, t);
+        backtrack.orderedPlacements(frameWord[depth], grid, placedWordList.size(), run.options,
+                frameCandidates[depth], metrics);
+        time(searchMetrics.Phase.GENERATION, t);
+    }
+
+    // start of a timed phase, the clock is only read when metrics are on
+    private long clock() {
+        return metrics == null ? 0 : System.nanoTime();
+    }
+
+    // adds the time since start to a phase and returns the current time, so phases can be chained
+    private long time(searchMetrics.Phase phase, long start) {
+        if (metrics == null) return 0;
+        long now = System.nanoTime();
+        metrics.phaseNanos[phase.ordinal()] += now - start;
+        return now;
+    }
+
+    private boolean stopped() {
+        return run.stopped() || abandoned.getAsBoolean();
+    }
+}
@@ -0,0 +1,239 @@
+package crosswordPuzzle.algorithm;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * counters of the backtracking search, summed over every search that uses them
+ *
+ * enabled by setting `searchOptions.metrics`; left null, the search only pays a null check at each counting
+ * point. one instance may be shared by many searches and threads: every search thread counts into its own
+ * Recorder, so counting itself needs no synchronization, and adds it to the totals every PUBLISH_INTERVAL
+ * nodes and when it finishes, so the totals keep moving while a long search runs
+ *
+ * what is counted:
+ *  - searches and nodes visited
+ *  - placements pruned by forward checking
+ *  - candidate placements generated, and candidates rejected by each rule of placementEvaluator
+ *  - backtracks per depth (depth = number of words placed when the word was chosen)
+ *  - grid expansions (a placement moving the grid bounds)
+ *  - nanoseconds spent in each phase: word selection, candidate generation, placement and undo
+ *
+ * the totals are readable here and, after `register`, through JMX as a standard MBean
+ */
+public class searchMetrics implements searchMetricsMBean {
+
+    public enum Phase { SELECTION, GENERATION, PLACEMENT, UNDO }
+
+    /**
+     * rules of placementEvaluator.placementScore, in the order it checks them
+     */
+    public enum Rule { CONFLICT, ADJACENCY, BOUNDARY, NO_OVERLAP }
+
+    // nodes a recorder counts before its counts are added to the totals, the interval searchRun checks its budgets at
+    static final int PUBLISH_INTERVAL = searchRun.CHECK_INTERVAL;
+
+    private long searches;
+    private long nodes;
+    private long candidates;
+    private long expansions;
+    private long prunes;
+    private final long[] rejections = new long[Rule.values().length];
+    private final long[] phaseNanos = new long[Phase.values().length];
+    private long[] backtracks = new long[0];
+
+    /**
+     * counts of one search thread, added to the totals and cleared with `publish`
+     */
+    static final class Recorder {
+        long nodes;
+        long candidates;
+        long expansions;
+        long prunes;
+        final long[] rejections = new long[Rule.values().length];
+        final long[] phaseNanos = new long[Phase.values().length];
+        long[] backtracks = new long[16];
+
+        // counts a rejection, score is the negative code returned by placementScore
+        void rejected(int score) {
+            rejections[placementEvaluator.rejectedRule(score).ordinal()]++;
+        }
+
+        void backtracked(int depth) {
+            if (depth >= backtracks.length) backtracks = Arrays.copyOf(backtracks, Math.max(depth + 1, backtracks.length * 2));
+            backtracks[depth]++;
+        }
+
+        // true once enough nodes are counted to publish
+        boolean due() {
+            return nodes >= PUBLISH_INTERVAL;
+        }
+
+        private void clear() {
+            nodes = 0;
+            candidates = 0;
+            expansions = 0;
+            prunes = 0;
+            Arrays.fill(rejections, 0);
+            Arrays.fill(phaseNanos, 0);
+            Arrays.fill(backtracks, 0);
+        }
+    }
+
+    Recorder recorder() {
+        return new Recorder();
+    }
+
+    // adds the counts of a recorder to the totals and clears it, so it can go on counting
+    synchronized void publish(Recorder r) {
+        nodes += r.nodes;
+        candidates += r.candidates;
+        expansions += r.expansions;
+        prunes += r.prunes;
+        for (int i = 0; i < rejections.length; i++) rejections[i] += r.rejections[i];
+        for (int i = 0; i < phaseNanos.length; i++) phaseNanos[i] += r.phaseNanos[i];
+
+        int depth = r.backtracks.length;
+        while (depth > 0 && r.backtracks[depth - 1] == 0) depth--;
+        if (depth > backtracks.length) backtracks = Arrays.copyOf(backtracks, depth);
+        for (int i = 0; i < depth; i++) backtracks[i] += r.backtracks[i];
+        r.clear();
+    }
+
+    // counts one finished search, its nodes were published by the recorders of its threads
+    synchronized void searchDone() {
+        searches++;
+    }
+
+    public synchronized long rejections(Rule rule) {
+        return rejections[rule.ordinal()];
+    }
+
+    public synchronized long nanos(Phase phase) {
+        return phaseNanos[phase.ordinal()];
+    }
+
+    @Override
+    public synchronized long getSearches() {
+        return searches;
+    }
+
+    @Override
+    public synchronized long getNodes() {
+        return nodes;
+    }
+
+    @Override
+    public synchronized long getCandidates() {
+        return candidates;
+    }
+
+    @Override
+    public synchronized long getGridExpansions() {
+        return expansions;
+    }
+
+    @Override
+    public synchronized long getPrunes() {
+        return prunes;
+    }
+
+    @Override
+    public synchronized long[] getBacktracksPerDepth() {
+        return backtracks.clone();
+    }
+
+    @Override
+    public synchronized long getBacktracks() {
+        long total = 0;
+        for (long b : backtracks) total += b;
+        return total;
+    }
+
+    @Override
+    public long getConflictRejections() {
+        return rejections(Rule.CONFLICT);
+    }
+
+    @Override
+    public long getAdjacencyRejections() {
+        return rejections(Rule.ADJACENCY);
+    }
+
+    @Override
+    public long getBoundaryRejections() {
+        return rejections(Rule.BOUNDARY);
+    }
+
+    @Override
+    public long getNoOverlapRejections() {
+        return rejections(Rule.NO_OVERLAP);
+    }
+
+    @Override
+    public long getSelectionNanos() {
+        return nanos(Phase.SELECTION);
+    }
+
+    @Override
+    public long getGenerationNanos() {
+        return nanos(Phase.GENERATION);
+    }
+
+    @Override
+    public long getPlacementNanos() {
+        return nanos(Phase.PLACEMENT);
+    }
+
+    @Override
+    public long getUndoNanos() {
+        return nanos(Phase.UNDO);
+    }
+
+    @Override
+    public synchronized void reset() {
+        searches = 0;
+        nodes = 0;
+        candidates = 0;
+        expansions = 0;
+        prunes = 0;
+        Arrays.fill(rejections, 0);
+        Arrays.fill(phaseNanos, 0);
+        backtracks = new long[0];
+    }
+
+    /**
+     * registers these metrics with the platform MBean server as crosswordPuzzle:type=SearchMetrics,name=<name>
+     *
+     * @param name - name telling this instance apart, e.g. the generator using it
+     * @return the name registered under, needed to unregister
+     * @throws JMException if the name is invalid or already taken
+     */
+    public ObjectName register(String name) throws JMException {
+        ObjectName objectName = new ObjectName("crosswordPuzzle:type=SearchMetrics,name=" + ObjectName.quote(name));
+        ManagementFactory.getPlatformMBeanServer().registerMBean(this, objectName);
+        return objectName;
+    }
+
+    public static void unregister(ObjectName objectName) throws JMException {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        if (server.isRegistered(objectName)) server.unregisterMBean(objectName);
+    }
+
+    @Override
+    public synchronized String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("searches ").append(searches).append(", nodes ").append(nodes)
+          .append(", candidates ").append(candidates).append(", expansions ").append(expansions)
+          .append(", prunes ").append(prunes).append('\n');
+        sb.append("rejected:");
+        for (Rule r : Rule.values()) sb.append(' ').append(r).append(' ').append(rejections[r.ordinal()]);
+        sb.append('\n').append("ms:");
+        for (Phase p : Phase.values()) sb.append(' ').append(p).append(' ').append(phaseNanos[p.ordinal()] / 1_000_000);
+        sb.append('\n').append("backtracks per depth: ").append(Arrays.toString(backtracks));
+        return sb.toString();
+    }
+}
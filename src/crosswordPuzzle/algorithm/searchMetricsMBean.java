@@ -0,0 +1,26 @@
+package crosswordPuzzle.algorithm;
+
+/**
+ * JMX view of searchMetrics, see searchMetrics.register
+ */
+public interface searchMetricsMBean {
+    long getSearches();
+    long getNodes();
+    long getCandidates();
+    long getGridExpansions();
+    long getPrunes();
+    long getBacktracks();
+    long[] getBacktracksPerDepth();
+
+    long getConflictRejections();
+    long getAdjacencyRejections();
+    long getBoundaryRejections();
+    long getNoOverlapRejections();
+
+    long getSelectionNanos();
+    long getGenerationNanos();
+    long getPlacementNanos();
+    long getUndoNanos();
+
+    void reset();
+}
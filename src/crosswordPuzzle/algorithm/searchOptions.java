@@ -0,0 +1,55 @@
+package crosswordPuzzle.algorithm;
+
+/**
+ * settings for a backtracking search, see `backtrack.placeWordsBacktracking`
+ * the defaults give the plain single-threaded search
+ */
+public class searchOptions {
+
+    // number of worker threads, 1 runs the search on the calling thread
+    public int threads = 1;
+
+    // when set, candidates with the same overlap score are tried in a shuffled order derived from seed
+    // the order only depends on the seed and the search node, so a seeded search gives the same layout
+    // on every run and with any thread count
+    public boolean shuffleTies = false;
+    public long seed = 0;
+
+    // budgets, 0 = unlimited; when one runs out the search returns its best partial layout
+    public long timeLimitMillis = 0;
+    public long nodeLimit = 0;
+
+    // order in which the next unused word is picked
+    public nextWordSelector.Order wordOrder = nextWordSelector.Order.INTERSECTIONS;
+
+    // keeps the valid placements of every unused word up to date and backtracks as soon as a word can no
+    // longer be placed, see forwardChecker; finds the same layouts, costs more per node but can save many nodes
+    // on hard word lists. a search that runs out of budget may keep a smaller partial layout, as the
+    // subtrees it skips are the ones that could only lead to partial layouts
+    public boolean forwardChecking = false;
+
+    // counters the search adds to, see searchMetrics; null turns counting off
+    // may be shared by searches running at the same time
+    public searchMetrics metrics = null;
+
+    public searchOptions() {
+    }
+
+    public searchOptions(int threads, long seed) {
+        this.threads = threads;
+        this.shuffleTies = true;
+        this.seed = seed;
+    }
+
+    // copy of other, so one setting can be changed for a single search
+    public searchOptions(searchOptions other) {
+        this.threads = other.threads;
+        this.shuffleTies = other.shuffleTies;
+        this.seed = other.seed;
+        this.timeLimitMillis = other.timeLimitMillis;
+        this.nodeLimit = other.nodeLimit;
+        this.wordOrder = other.wordOrder;
+        this.forwardChecking = other.forwardChecking;
+        this.metrics = other.metrics;
+    }
+}
@@ -0,0 +1,37 @@
+package crosswordPuzzle.algorithm;
+
+import java.util.ArrayList;
+import crosswordPuzzle.core.*;
+
+/**
+ * outcome of `backtrack.placeWords`
+ * the grid and placed word list passed to the search hold the layout itself: the full layout when solved,
+ * otherwise the best partial layout found (most words placed, then densest grid)
+ */
+public class searchResult {
+
+    /**
+     * why the search ended
+     *  - SOLVED: every word is placed
+     *  - EXHAUSTED: every branch was tried without placing every word
+     *  - TIME_LIMIT / NODE_LIMIT: a budget from searchOptions ran out
+     *  - CANCELLED: the searching thread was interrupted
+     */
+    public enum Status { SOLVED, EXHAUSTED, TIME_LIMIT, NODE_LIMIT, CANCELLED }
+
+    public final Status status;
+    public final ArrayList<wordKeeper> unplacedWords;
+    public final long nodes;
+    public final long millis;
+
+    searchResult(Status status, ArrayList<wordKeeper> unplacedWords, long nodes, long millis) {
+        this.status = status;
+        this.unplacedWords = unplacedWords;
+        this.nodes = nodes;
+        this.millis = millis;
+    }
+
+    public boolean solved() {
+        return status == Status.SOLVED;
+    }
+}
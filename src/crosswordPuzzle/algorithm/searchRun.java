@@ -0,0 +1,112 @@
+package crosswordPuzzle.algorithm;
+
+import java.util.ArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import crosswordPuzzle.core.*;
+
+/**
+ * runtime state of one search, shared by every task of a parallel search
+ *
+ *  - counts visited nodes and stops the search when the node or time budget runs out
+ *  - keeps the best partial layout seen so far: most words placed, then densest grid
+ */
+class searchRun {
+    // the clock and the interrupt flag are only checked every CHECK_INTERVAL nodes
+    static final int CHECK_INTERVAL = 256;
+
+    final searchOptions options;
+    private final long startNanos;
+    private final AtomicLong nodes = new AtomicLong();
+    private volatile searchResult.Status stopReason;
+
+    private volatile int bestCount = -1;
+    private double bestDensity;
+    private ArrayList<placedWord> bestLayout;
+
+    searchRun(searchOptions options) {
+        this.options = options;
+        this.startNanos = System.nanoTime();
+    }
+
+    /**
+     * counts one search node
+     *
+     * @return false once the search has to stop
+     */
+    boolean visit() {
+        if (stopReason != null) return false;
+        long n = nodes.incrementAndGet();
+
+        if (options.nodeLimit > 0 && n > options.nodeLimit) return stop(searchResult.Status.NODE_LIMIT);
+        if (n % CHECK_INTERVAL == 0) {
+            if (options.timeLimitMillis > 0 && millis() >= options.timeLimitMillis) return stop(searchResult.Status.TIME_LIMIT);
+            if (Thread.currentThread().isInterrupted()) return stop(searchResult.Status.CANCELLED);
+        }
+        return true;
+    }
+
+    // stops the search from outside, e.g. when the caller of a parallel search is interrupted
+    void cancel() {
+        stop(searchResult.Status.CANCELLED);
+    }
+
+    // records the first reason to stop, later ones are ignored
+    private synchronized boolean stop(searchResult.Status reason) {
+        if (stopReason == null) stopReason = reason;
+        return false;
+    }
+
+    boolean stopped() {
+        return stopReason != null;
+    }
+
+    // reason the search stopped early, EXHAUSTED if no budget ran out
+    searchResult.Status stopReason() {
+        return stopReason == null ? searchResult.Status.EXHAUSTED : stopReason;
+    }
+
+    /**
+     * offers the current layout as the best partial layout
+     * the layout is copied only if it places more words, or as many words on a denser grid
+     */
+    void offer(ArrayList<placedWord> placed, Grid grid) {
+        int count = placed.size();
+        if (count < bestCount) return;
+
+        double density = density(placed, grid);
+        synchronized (this) {
+            if (count > bestCount || (count == bestCount && density > bestDensity)) {
+                bestLayout = new ArrayList<>(placed);
+                bestDensity = density;
+                bestCount = count;
+            }
+        }
+    }
+
+    synchronized ArrayList<placedWord> bestLayout() {
+        return bestLayout;
+    }
+
+    long nodes() {
+        return nodes.get();
+    }
+
+    long millis() {
+        return (System.nanoTime() - startNanos) / 1_000_000;
+    }
+
+    // filled cells over the area of the box around the placed words
+    private static double density(ArrayList<placedWord> placed, Grid grid) {
+        if (placed.isEmpty()) return 0;
+
+        int minR = Integer.MAX_VALUE, maxR = Integer.MIN_VALUE, minC = Integer.MAX_VALUE, maxC = Integer.MIN_VALUE;
+        for (placedWord pw : placed) {
+            int len = pw.word.letters.length;
+            minR = Math.min(minR, pw.row);
+            minC = Math.min(minC, pw.col);
+            maxR = Math.max(maxR, pw.isVertical ? pw.row + len - 1 : pw.row);
+            maxC = Math.max(maxC, pw.isVertical ? pw.col : pw.col + len - 1);
+        }
+        return grid.getFilledCells() / (double) ((maxR - minR + 1) * (maxC - minC + 1));
+    }
+}
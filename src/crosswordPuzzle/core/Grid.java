@@ -1,41 +1,116 @@
 package crosswordPuzzle.core;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
 /**
  * class for the crossword puzzle and contains all grid operations
- * 
+ *
+ * coordinates are logical: the visible grid spans rows firstRow .. firstRow + rows - 1 and
+ * columns firstCol .. firstCol + cols - 1, and both can go negative while a puzzle is generated.
+ * the cells live in a larger physical buffer, (originRow, originCol) being the buffer index of
+ * logical (0, 0), so growing the grid in any direction keeps every placed word at the same
+ * coordinates and only reallocates (with doubling) when the spare capacity runs out
  */
 public class Grid {
+    // minimum visible size of a grid
+    private static final int MIN_SIZE = 15;
+
     private char[][] board;
+    private int originRow;
+    private int originCol;
+
+    private int firstRow;
+    private int firstCol;
     private int rows;
     private int cols;
 
+    // letter occurrence index, one slot per letter A-Z
+    // letterCount[l] = number of cells holding the letter, letterRows/letterCols[l] = those cells (logical)
+    // letterSlot = position of a cell inside its letter's list, -1 if not indexed (physical, like board)
+    private final int[] letterCount = new int[26];
+    private final int[][] letterRows = new int[26][8];
+    private final int[][] letterCols = new int[26][8];
+    private int[][] letterSlot;
+
+    // number of placed words covering each cell, a crossing cell is covered twice (physical, like board)
+    private int[][] occupancy;
+
+    // number of non-empty cells
+    private int filledCells;
+
+    // number of times a placement moved the grid bounds, read by the search metrics
+    private long expansions;
+
     /**
-     * constructor for the board object */
+     * constructor for the board object
+     * the buffer is pre-sized with one grid of headroom on every side */
     public Grid(int r, int c) {
         this.rows = r;
         this.cols = c;
-        board = new char[rows][cols];
+        allocate(3 * r, 3 * c);
+        originRow = r;
+        originCol = c;
+    }
 
-        for (int i = 0; i < rows; i++) {
-            for (int j = 0; j < cols; j++) {
-                board[i][j] = '-';
-            }
+    /**
+     * copy constructor, the copy shares nothing with the original
+     * used to give each parallel search task its own grid */
+    public Grid(Grid other) {
+        this.rows = other.rows;
+        this.cols = other.cols;
+        this.firstRow = other.firstRow;
+        this.firstCol = other.firstCol;
+        this.originRow = other.originRow;
+        this.originCol = other.originCol;
+        this.filledCells = other.filledCells;
+        this.expansions = other.expansions;
+
+        board = new char[other.board.length][];
+        letterSlot = new int[other.board.length][];
+        occupancy = new int[other.board.length][];
+        for (int i = 0; i < board.length; i++) {
+            board[i] = other.board[i].clone();
+            letterSlot[i] = other.letterSlot[i].clone();
+            occupancy[i] = other.occupancy[i].clone();
+        }
+
+        System.arraycopy(other.letterCount, 0, letterCount, 0, 26);
+        for (int l = 0; l < 26; l++) {
+            letterRows[l] = other.letterRows[l].clone();
+            letterCols[l] = other.letterCols[l].clone();
+        }
+    }
+
+    // replaces the physical buffer with an empty one of the given capacity
+    private void allocate(int capRows, int capCols) {
+        board = new char[capRows][capCols];
+        letterSlot = new int[capRows][capCols];
+        occupancy = new int[capRows][capCols];
+
+        for (int i = 0; i < capRows; i++) {
+            Arrays.fill(board[i], '-');
+            Arrays.fill(letterSlot[i], -1);
         }
     }
 
     /**
      * returns the 2D char array representing the grid
+     * the array is a snapshot of the visible grid indexed from 0, later changes to the grid do not show in it
      */
     public char[][] getBoard(){
-        return board;
+        char[][] snapshot = new char[rows][cols];
+        for (int i = 0; i < rows; i++) {
+            System.arraycopy(board[firstRow + originRow + i], firstCol + originCol, snapshot[i], 0, cols);
+        }
+        return snapshot;
     }
 
     public void displayGrid() {
-        for (int i = 0; i < rows; i++) {
-            for (int j = 0; j < cols; j++) {
-                System.out.print(board[i][j] + "  ");
+        for (int i = firstRow; i < firstRow + rows; i++) {
+            for (int j = firstCol; j < firstCol + cols; j++) {
+                System.out.print(getCell(i, j) + "  ");
             }
             System.out.println();
         }
@@ -43,65 +118,130 @@ public class Grid {
 
     /**
      * handles placement of words on the grid
-     * 
+     * the grid grows to fit the word, coordinates of words already placed never change
+     *
      * @param pw - word to place
-     * @param placedWordList - 
      */
-    public void wordPlacer(placedWord pw, ArrayList<placedWord> placedWordList) {
-        expandToFit(pw, placedWordList);
+    public void wordPlacer(placedWord pw) {
+        expandToFit(pw);
 
         for (int i = 0; i < pw.word.letters.length; i++) {
             int r = pw.isVertical ? pw.row + i : pw.row;
             int c = pw.isVertical ? pw.col : pw.col + i;
-            board[r][c] = pw.word.letters[i];
+            setCell(r, c, pw.word.letters[i]);
+            occupancy[r + originRow][c + originCol]++;
         }
     }
 
     /**
      * removes a word from grid
-     * 
-     * @param pw
-     * @param placedWordList
+     * cells still covered by another placed word (crossings) keep their letter
+     *
+     * @param pw - word to remove, must currently be placed on this grid
      */
-    public void removeWord(placedWord pw, ArrayList<placedWord> placedWordList) {
+    public void removeWord(placedWord pw) {
         for (int i = 0; i < pw.word.letters.length; i++) {
             int r = pw.isVertical ? pw.row + i : pw.row;
             int c = pw.isVertical ? pw.col : pw.col + i;
 
-            boolean shared = false;
-            for (placedWord other : placedWordList) {
-                if (other == pw) continue;
-                for (int j = 0; j < other.word.letters.length; j++) {
-                    int or = other.isVertical ? other.row + j : other.row;
-                    int oc = other.isVertical ? other.col : other.col + j;
-                    if (or == r && oc == c) shared = true;
-                }
+            if (--occupancy[r + originRow][c + originCol] == 0) {
+                setCell(r, c, '-');
             }
+        }
+    }
 
-            if (!shared) {
-                board[r][c] = '-';
-            }
+    /**
+     * writes a single cell and keeps the letter index in step with the board
+     *
+     * @param r
+     * @param c
+     * @param ch - letter to write, '-' to clear the cell
+     */
+    private void setCell(int r, int c, char ch) {
+        int pr = r + originRow, pc = c + originCol;
+        char old = board[pr][pc];
+        if (old == ch) return;
+
+        if (letterSlot[pr][pc] >= 0) unindexCell(r, c, old);
+        if (old == '-') filledCells++;
+        if (ch == '-') filledCells--;
+        board[pr][pc] = ch;
+        if (isIndexed(ch)) indexCell(r, c, ch);
+    }
+
+    // only A-Z is indexed, anything else falls back to a board scan
+    private static boolean isIndexed(char ch) {
+        return ch >= 'A' && ch <= 'Z';
+    }
+
+    private void indexCell(int r, int c, char ch) {
+        int l = ch - 'A';
+        int n = letterCount[l];
+        if (n == letterRows[l].length) {
+            letterRows[l] = Arrays.copyOf(letterRows[l], n * 2);
+            letterCols[l] = Arrays.copyOf(letterCols[l], n * 2);
         }
+        letterRows[l][n] = r;
+        letterCols[l][n] = c;
+        letterSlot[r + originRow][c + originCol] = n;
+        letterCount[l] = n + 1;
     }
 
+    // swap-remove: the last entry of the letter's list takes over the freed slot
+    private void unindexCell(int r, int c, char ch) {
+        int l = ch - 'A';
+        int slot = letterSlot[r + originRow][c + originCol];
+        int last = --letterCount[l];
+        int lr = letterRows[l][last];
+        int lc = letterCols[l][last];
+        letterRows[l][slot] = lr;
+        letterCols[l][slot] = lc;
+        letterSlot[lr + originRow][lc + originCol] = slot;
+        letterSlot[r + originRow][c + originCol] = -1;
+    }
 
     /**
      * checks if a specific letter exists anywhere on the grid
-     * 
+     * O(1) for A-Z through the letter index
+     *
      * @param ch
      * @return
      */
     public boolean containsLetter(char ch) {
-        for (int i = 0; i < rows; i++) {
-            for (int j = 0; j < cols; j++) {
-                if (board[i][j] == ch) {
+        if (isIndexed(ch)) return letterCount[ch - 'A'] > 0;
+
+        for (int i = firstRow; i < firstRow + rows; i++) {
+            for (int j = firstCol; j < firstCol + cols; j++) {
+                if (getCell(i, j) == ch) {
                     return true;
                 }
             }
         }
         return false;
-    } 
-    
+    }
+
+    /**
+     * number of cells on the grid holding the given letter (A-Z)
+     */
+    public int letterCount(char ch) {
+        return isIndexed(ch) ? letterCount[ch - 'A'] : 0;
+    }
+
+    /**
+     * row of the i-th cell holding the given letter, 0 <= i < letterCount(ch)
+     * order of the cells is unspecified and changes as words are placed and removed
+     */
+    public int letterRow(char ch, int i) {
+        return letterRows[ch - 'A'][i];
+    }
+
+    /**
+     * column of the i-th cell holding the given letter, 0 <= i < letterCount(ch)
+     */
+    public int letterCol(char ch, int i) {
+        return letterCols[ch - 'A'][i];
+    }
+
     // returns number of rows and columns
     public int getRows() {
         return rows;
@@ -110,116 +250,142 @@ public class Grid {
         return cols;
     }
 
+    // returns number of cells holding a letter
+    public int getFilledCells() {
+        return filledCells;
+    }
+
+    public long getExpansions() {
+        return expansions;
+    }
+
+    // returns logical coordinates of the top-left cell, negative once the grid has grown up/left
+    public int getFirstRow() {
+        return firstRow;
+    }
+    public int getFirstCol() {
+        return firstCol;
+    }
+
 
     // gets the character at a specific cell
-    public char getCell(int r, int c) { 
-        return board[r][c]; 
+    public char getCell(int r, int c) {
+        return board[r + originRow][c + originCol];
     }
 
     // word placement adjacency check
-    // ensure placed words do not touch 
+    // ensure placed words do not touch
     public boolean hasIllegalSideAdjacency(int r, int c, boolean vertical) {
         if (vertical) {
-            if (c > 0 && getCell(r, c - 1) != '-') return true;
-            if (c < cols - 1 && getCell(r, c + 1) != '-') return true;
+            if (inBounds(r, c - 1) && getCell(r, c - 1) != '-') return true;
+            if (inBounds(r, c + 1) && getCell(r, c + 1) != '-') return true;
         } else {
-            if (r > 0 && getCell(r - 1, c) != '-') return true;
-            if (r < rows - 1 && getCell(r + 1, c) != '-') return true;
+            if (inBounds(r - 1, c) && getCell(r - 1, c) != '-') return true;
+            if (inBounds(r + 1, c) && getCell(r + 1, c) != '-') return true;
         }
         return false;
     }
 
     // method to check if given row and column are within grid bounds
     // ensures no out of bounds errors
-    public boolean inBounds(int r, int c) { 
-        return r >= 0 && r < rows && c >= 0 && c < cols; 
+    public boolean inBounds(int r, int c) {
+        return r >= firstRow && r < firstRow + rows && c >= firstCol && c < firstCol + cols;
     }
 
     // check boundary cells before and after the word placement
     // prevents words to incorrectly combine
     public boolean checkBoundary(placedWord pw) {
-        int len = pw.word.letters.length;
-        int rStartPrev = pw.isVertical ? pw.row - 1 : pw.row;
-        int cStartPrev = pw.isVertical ? pw.col : pw.col - 1;
+        return checkBoundary(pw.row, pw.col, pw.word.letters.length, pw.isVertical);
+    }
+
+    // same check for a candidate that is not materialized as a placedWord
+    public boolean checkBoundary(int row, int col, int len, boolean vertical) {
+        int rStartPrev = vertical ? row - 1 : row;
+        int cStartPrev = vertical ? col : col - 1;
         if (inBounds(rStartPrev, cStartPrev) && getCell(rStartPrev, cStartPrev) != '-') return false;
 
-        int rEndNext = pw.isVertical ? pw.row + len : pw.row;
-        int cEndNext = pw.isVertical ? pw.col : pw.col + len;
+        int rEndNext = vertical ? row + len : row;
+        int cEndNext = vertical ? col : col + len;
         if (inBounds(rEndNext, cEndNext) && getCell(rEndNext, cEndNext) != '-') return false;
 
         return true;
     }
 
     // Expand grid only in the direction needed
-    public void expandToFit(placedWord pw, ArrayList<placedWord> placedWordList) {
+    // only the visible bounds move; placed words keep their coordinates
+    public void expandToFit(placedWord pw) {
         int endRow = pw.isVertical ? pw.row + pw.word.letters.length - 1 : pw.row;
         int endCol = pw.isVertical ? pw.col : pw.col + pw.word.letters.length - 1;
 
-        int rowOffset = 0;
-        int colOffset = 0;
-
-        int newRows = rows;
-        int newCols = cols;
-
-        // Expand downward/rightward
-        if (endRow >= rows) newRows = endRow + 1;
-        if (endCol >= cols) newCols = endCol + 1;
-
-        // Expand upward/leftward
-        if (pw.row < 0) {
-            rowOffset = -pw.row;
-            newRows = rows + rowOffset;
-        }
-        if (pw.col < 0) {
-            colOffset = -pw.col;
-            newCols = cols + colOffset;
-        }
+        int newFirstRow = Math.min(firstRow, pw.row);
+        int newFirstCol = Math.min(firstCol, pw.col);
+        int newRows = Math.max(firstRow + rows, endRow + 1) - newFirstRow;
+        int newCols = Math.max(firstCol + cols, endCol + 1) - newFirstCol;
 
         // Enforce minimum size
-        if (newRows < 15) newRows = 15;
-        if (newCols < 15) newCols = 15;
+        if (newRows < MIN_SIZE) newRows = MIN_SIZE;
+        if (newCols < MIN_SIZE) newCols = MIN_SIZE;
 
         // Nothing to do
-        if (newRows == rows && newCols == cols && rowOffset == 0 && colOffset == 0) return;
-
-        // Create new board
-        char[][] newBoard = new char[newRows][newCols];
-        for (int r = 0; r < newRows; r++)
-            for (int c = 0; c < newCols; c++)
-                newBoard[r][c] = '-';
-
-        // Copy old board into new board at proper offset
-        for (int r = 0; r < rows; r++) {
-            for (int c = 0; c < cols; c++) {
-                newBoard[r + rowOffset][c + colOffset] = board[r][c];
-            }
-        }
+        if (newFirstRow == firstRow && newFirstCol == firstCol && newRows == rows && newCols == cols) return;
 
-        // Shift coordinates of all previously placed words if we expanded upward/leftward
-        if (rowOffset != 0 || colOffset != 0) {
-            for (placedWord w : placedWordList) {
-                w.row += rowOffset;
-                w.col += colOffset;
-            }
-            // Shift candidate word too
-            pw.row += rowOffset;
-            pw.col += colOffset;
-        }
-
-        // Apply new board
-        board = newBoard;
+        ensureCapacity(newFirstRow, newFirstCol, newRows, newCols);
+        expansions++;
+        firstRow = newFirstRow;
+        firstCol = newFirstCol;
         rows = newRows;
         cols = newCols;
     }
 
+    // makes sure the buffer covers the given logical area
+    // when it does not, capacity at least doubles on each side that ran out, so growth is amortized O(1)
+    private void ensureCapacity(int top, int left, int height, int width) {
+        int capRows = board.length, capCols = board[0].length;
+        int padTop = top + originRow, padLeft = left + originCol;
+        int padBottom = capRows - (top + height + originRow);
+        int padRight = capCols - (left + width + originCol);
+        if (padTop >= 0 && padLeft >= 0 && padBottom >= 0 && padRight >= 0) return;
+
+        // headroom on a side that ran out becomes the whole old capacity
+        int growTop = padTop < 0 ? capRows - padTop : 0;
+        int growLeft = padLeft < 0 ? capCols - padLeft : 0;
+        int growBottom = padBottom < 0 ? capRows - padBottom : 0;
+        int growRight = padRight < 0 ? capCols - padRight : 0;
+
+        char[][] oldBoard = board;
+        int[][] oldSlot = letterSlot;
+        int[][] oldOccupancy = occupancy;
+        allocate(capRows + growTop + growBottom, capCols + growLeft + growRight);
+
+        for (int r = 0; r < capRows; r++) {
+            System.arraycopy(oldBoard[r], 0, board[r + growTop], growLeft, capCols);
+            System.arraycopy(oldSlot[r], 0, letterSlot[r + growTop], growLeft, capCols);
+            System.arraycopy(oldOccupancy[r], 0, occupancy[r + growTop], growLeft, capCols);
+        }
+        originRow += growTop;
+        originCol += growLeft;
+    }
+
 
 
     // trim extra empty rows and columns from the grid
+    // the trimmed grid starts again at logical (0, 0)
     public void trimGrid() {
-        int minR = rows, maxR = 0, minC = cols, maxC = 0;
-        for (int r = 0; r < rows; r++)
-            for (int c = 0; c < cols; c++)
-                if (board[r][c] != '-') {
+        trimGrid(new ArrayList<>());
+    }
+
+    /**
+     * trims the grid and moves the placed words with it
+     * every cell moves by the same row and column shift, so each word is shifted by exactly that amount
+     * instead of being searched for on the board again
+     *
+     * @param placedWordList - words on the grid, their coordinates are updated in place
+     */
+    public void trimGrid(List<placedWord> placedWordList) {
+        int minR = firstRow + rows, maxR = firstRow, minC = firstCol + cols, maxC = firstCol;
+        for (int r = firstRow; r < firstRow + rows; r++)
+            for (int c = firstCol; c < firstCol + cols; c++)
+                if (getCell(r, c) != '-') {
                     minR = Math.min(minR, r);
                     maxR = Math.max(maxR, r);
                     minC = Math.min(minC, c);
@@ -230,62 +396,46 @@ public class Grid {
         int width = maxC - minC + 1;
         int size = Math.max(height, width);
 
-        if (size < 15) size = 15; // enforce minimum
-
-        char[][] newBoard = new char[size][size];
-        for (int r = 0; r < size; r++)
-            for (int c = 0; c < size; c++)
-                newBoard[r][c] = '-';
+        if (size < MIN_SIZE) size = MIN_SIZE; // enforce minimum
 
         int offsetR = (size - height) / 2;
         int offsetC = (size - width) / 2;
 
+        char[][] oldBoard = board;
+        int[][] oldOccupancy = occupancy;
+        int oldOriginRow = originRow, oldOriginCol = originCol;
+        allocate(size, size);
+
         for (int r = minR; r <= maxR; r++)
-            for (int c = minC; c <= maxC; c++)
-                newBoard[r - minR + offsetR][c - minC + offsetC] = board[r][c];
+            for (int c = minC; c <= maxC; c++) {
+                board[r - minR + offsetR][c - minC + offsetC] = oldBoard[r + oldOriginRow][c + oldOriginCol];
+                occupancy[r - minR + offsetR][c - minC + offsetC] = oldOccupancy[r + oldOriginRow][c + oldOriginCol];
+            }
 
-        board = newBoard;
+        originRow = 0;
+        originCol = 0;
+        firstRow = 0;
+        firstCol = 0;
         rows = size;
         cols = size;
+        rebuildLetterIndex();
+
+        int shiftR = offsetR - minR;
+        int shiftC = offsetC - minC;
+        for (placedWord pw : placedWordList) {
+            pw.row += shiftR;
+            pw.col += shiftC;
+        }
     }
 
-    // adjusts coordinates of all placed words when grid gets trimmed
-    public void syncPlacedWords(ArrayList<placedWord> placedWordList) {
-    for (placedWord pw : placedWordList) {
-        // Look for the first letter of the word on the grid
-        char firstLetter = pw.word.letters[0];
-        boolean found = false;
-
-        for (int r = 0; r < rows && !found; r++) {
-            for (int c = 0; c < cols && !found; c++) {
-                if (board[r][c] == firstLetter) {
-                    // Check orientation match
-                    boolean matchesVert = true;
-                    boolean matchesHorz = true;
-
-                    for (int i = 0; i < pw.word.letters.length; i++) {
-                        // Vertical check
-                        if (r + i >= rows || board[r + i][c] != pw.word.letters[i]) matchesVert = false;
-                        // Horizontal check
-                        if (c + i >= cols || board[r][c + i] != pw.word.letters[i]) matchesHorz = false;
-                    }
-
-                    if (matchesVert) {
-                        pw.row = r;
-                        pw.col = c;
-                        pw.isVertical = true;
-                        found = true;
-                    } else if (matchesHorz) {
-                        pw.row = r;
-                        pw.col = c;
-                        pw.isVertical = false;
-                        found = true;
-                    }
-                }
+    // rebuilds the letter index from the board, used after the board is replaced wholesale
+    private void rebuildLetterIndex() {
+        Arrays.fill(letterCount, 0);
+        for (int r = firstRow; r < firstRow + rows; r++) {
+            for (int c = firstCol; c < firstCol + cols; c++) {
+                letterSlot[r + originRow][c + originCol] = -1;
+                if (isIndexed(getCell(r, c))) indexCell(r, c, getCell(r, c));
             }
         }
     }
 }
-
-
-}
@@ -1,10 +1,18 @@
 package crosswordPuzzle.core;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.io.Serializable;
 
-/** 
+/**
  * Class to keep track of all words
  * stores the word, generated id, and char array of its letters
+ *
+ * also keeps letter data derived from the word once, so the algorithms never count letters again:
+ *  - letterMask: bit l set when the word holds letter 'A' + l
+ *  - letterCounts: times the word holds each letter A-Z
+ *  - codes: the letters as 0-25, -1 for anything that is not A-Z
+ * derived data is not serialized, it is rebuilt when a word is read back
  */
 
 public class wordKeeper implements Serializable{
@@ -15,12 +23,39 @@ public class wordKeeper implements Serializable{
     public char[] letters;
     public String clue;
 
+    public transient int letterMask;
+    public transient byte[] letterCounts;
+    public transient byte[] codes;
+
     public wordKeeper(String word, int id, String clue) {
         this.word = word;
         this.id = id;
         this.letters = word.toCharArray();
         this.clue = clue;
-        
+        deriveLetterData();
+    }
+
+    // counts saturate at 127, far above any real word
+    private void deriveLetterData() {
+        letterMask = 0;
+        letterCounts = new byte[26];
+        codes = new byte[letters.length];
+        for (int i = 0; i < letters.length; i++) {
+            char ch = letters[i];
+            if (ch < 'A' || ch > 'Z') {
+                codes[i] = -1;
+                continue;
+            }
+            int l = ch - 'A';
+            codes[i] = (byte) l;
+            letterMask |= 1 << l;
+            if (letterCounts[l] < Byte.MAX_VALUE) letterCounts[l]++;
+        }
+    }
+
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        deriveLetterData();
     }
 
     public String getWord(){
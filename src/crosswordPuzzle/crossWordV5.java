@@ -10,6 +10,12 @@ import crosswordPuzzle.algorithm.*;
 public class crossWordV5 {
 
     public static void main(String[] args) throws Exception {
+        // non-interactive bulk generation: --batch <file-or-directory> [threads] [seconds per puzzle] [portfolio strategies]
+        if (args.length > 0 && args[0].equals("--batch")) {
+            batchGenerator.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+
         Scanner sc = new Scanner(System.in);
 
         boolean running = true;
@@ -87,7 +93,7 @@ public class crossWordV5 {
                 }
 
                 String chosenTitle = savedPuzzles[selection - 1];
-                Object[] loaded = puzzleManager.loadPuzzle(chosenTitle);
+                puzzleSolution loaded = puzzleManager.loadSolution(chosenTitle);
                 if (loaded == null) {
                     System.out.println("Failed to load puzzle.");
 
@@ -97,11 +103,8 @@ public class crossWordV5 {
                     continue;           
                 }
 
-                char[][] solutionGrid = (char[][]) loaded[0];
-                ArrayList<placedWord> placedWordList = (ArrayList<placedWord>) loaded[1];
-
                 // Launch GUI
-                new crosswordGUI(solutionGrid, placedWordList);
+                new crosswordGUI(loaded.grid, loaded.placedWords);
                 
                 System.out.println();
                 System.out.print("enter any key to continue > ");
@@ -0,0 +1,321 @@
+package crosswordPuzzle.io;
+
+import java.io.*;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+
+/**
+ * append-only archive of saved puzzles with an index of title to offset
+ *
+ * two files in the puzzle folder:
+ *  - puzzles.archive: records of [length (i32), created (i64), puzzle in puzzleFormat], only ever appended
+ *  - puzzles.index: header [magic "XWPI", version (u16), flags (u16), entry count (i32)] followed by
+ *                   entries of [key (u16 length + UTF-8), offset (i64), length (i32), rows (u16), cols (u16),
+ *                   word count (i32), created (i64)]
+ *
+ * the index is memory-mapped and read once when the archive opens, after that listing, paging and finding
+ * a puzzle by title are in-memory lookups, and a puzzle is decoded straight from the mapped archive
+ *
+ * saving a title again appends a new record that replaces the old one, the old record stays in the file
+ * the index can always be rebuilt from the archive: records missing from it (e.g. after a crash between
+ * the two appends) are re-indexed when the archive opens, a complete record that cannot be read is skipped,
+ * and a truncated last record is dropped
+ */
+class puzzleArchive {
+
+    static final String ARCHIVE_FILE = "puzzles.archive";
+    static final String INDEX_FILE = "puzzles.index";
+
+    private static final int INDEX_MAGIC = 0x58575049; // "XWPI"
+    private static final int INDEX_VERSION = 1;
+    private static final int INDEX_HEADER_SIZE = 12;
+    private static final int COUNT_OFFSET = 8;
+    private static final int RECORD_HEADER_SIZE = 12;
+
+    /**
+     * where a puzzle lives in the archive, plus its metadata
+     */
+    static class Entry {
+        final String key;
+        final long offset;
+        final int length;
+        final puzzleInfo info;
+
+        Entry(String key, long offset, int length, puzzleInfo info) {
+            this.key = key;
+            this.offset = offset;
+            this.length = length;
+            this.info = info;
+        }
+
+        // first byte after the record
+        long end() {
+            return offset + RECORD_HEADER_SIZE + length;
+        }
+    }
+
+    private final FileChannel archive;
+    private final FileChannel index;
+
+    // entries in order of first save, and the position of each key in that list
+    private final ArrayList<Entry> entries = new ArrayList<>();
+    private final HashMap<String, Integer> position = new HashMap<>();
+    private long indexEnd;
+    private int indexCount;
+
+    private MappedByteBuffer view;
+
+    private puzzleArchive(Path folder) throws IOException {
+        archive = FileChannel.open(folder.resolve(ARCHIVE_FILE), StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        index = FileChannel.open(folder.resolve(INDEX_FILE), StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+    }
+
+    /**
+     * opens the archive in the given folder, creating it if needed, and brings the index up to date
+     *
+     * @throws IOException if the files cannot be opened
+     */
+    static puzzleArchive open(Path folder) throws IOException {
+        puzzleArchive a = new puzzleArchive(folder);
+        try {
+            a.readIndex();
+            a.recover();
+        } catch (IOException e) {
+            a.close();
+            throw e;
+        }
+        return a;
+    }
+
+    synchronized int size() {
+        return entries.size();
+    }
+
+    synchronized boolean contains(String key) {
+        return position.containsKey(key);
+    }
+
+    synchronized Entry entry(String key) {
+        Integer i = position.get(key);
+        return i == null ? null : entries.get(i);
+    }
+
+    /**
+     * metadata of a page of puzzles, in order of first save
+     *
+     * @param from - index of the first puzzle
+     * @param count - maximum number of puzzles
+     */
+    synchronized ArrayList<puzzleInfo> list(int from, int count) {
+        ArrayList<puzzleInfo> page = new ArrayList<>();
+        for (int i = Math.max(0, from); i < entries.size() && page.size() < count; i++) {
+            page.add(entries.get(i).info);
+        }
+        return page;
+    }
+
+    /**
+     * appends a puzzle, replacing any earlier puzzle saved under the same key
+     *
+     * @param key - title as used in file names
+     * @param puzzle - puzzle encoded with puzzleFormat, consumed
+     * @param createdMillis - creation time stored with the record
+     */
+    synchronized void append(String key, ByteBuffer puzzle, long createdMillis) throws IOException {
+        long offset = archive.size();
+        int length = puzzle.remaining();
+        puzzleInfo info = listed(key, puzzleFormat.readInfo(puzzle, createdMillis));
+
+        ByteBuffer header = ByteBuffer.allocate(RECORD_HEADER_SIZE);
+        header.putInt(length).putLong(createdMillis).flip();
+        writeFully(archive, header, offset);
+        writeFully(archive, puzzle, offset + RECORD_HEADER_SIZE);
+
+        addEntry(new Entry(key, offset, length, info), true);
+    }
+
+    /**
+     * the encoded puzzle saved under the given key, read from the mapped archive
+     *
+     * @return buffer positioned at the start of the puzzle, null if no such puzzle
+     */
+    synchronized ByteBuffer read(String key) throws IOException {
+        Entry e = entry(key);
+        if (e == null) return null;
+
+        long start = e.offset + RECORD_HEADER_SIZE;
+        if (e.end() > Integer.MAX_VALUE) return archive.map(FileChannel.MapMode.READ_ONLY, start, e.length);
+
+        if (view == null || e.end() > view.capacity()) {
+            view = archive.map(FileChannel.MapMode.READ_ONLY, 0, Math.min(archive.size(), Integer.MAX_VALUE));
+        }
+        ByteBuffer record = view.duplicate();
+        record.position((int) start).limit((int) start + e.length);
+        return record.slice();
+    }
+
+    synchronized void close() throws IOException {
+        view = null;
+        try {
+            archive.close();
+        } finally {
+            index.close();
+        }
+    }
+
+    // loads the index file, starting a new one if it is missing or unreadable
+    private void readIndex() throws IOException {
+        long size = index.size();
+        if (size < INDEX_HEADER_SIZE) {
+            resetIndex();
+            return;
+        }
+
+        MappedByteBuffer buf = index.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        if (buf.getInt() != INDEX_MAGIC || (buf.getShort() & 0xFFFF) != INDEX_VERSION) {
+            resetIndex();
+            return;
+        }
+        buf.getShort(); // flags
+        int count = buf.getInt();
+
+        // entries past the count, or cut short, come from an interrupted append and are dropped
+        indexEnd = INDEX_HEADER_SIZE;
+        indexCount = 0;
+        try {
+            for (int i = 0; i < count; i++) {
+                String key = puzzleFormat.getString(buf);
+                long offset = buf.getLong();
+                int length = buf.getInt();
+                int rows = buf.getShort() & 0xFFFF;
+                int cols = buf.getShort() & 0xFFFF;
+                int words = buf.getInt();
+                long createdMillis = buf.getLong();
+                addEntry(new Entry(key, offset, length, new puzzleInfo(displayTitle(key), rows, cols, words, createdMillis)), false);
+                indexEnd = buf.position();
+                indexCount++;
+            }
+        } catch (BufferUnderflowException e) {
+            // keep the entries read so far
+        }
+    }
+
+    // re-indexes records the index does not cover, or the whole archive if the index points past its end
+    private void recover() throws IOException {
+        long covered = 0;
+        for (Entry e : entries) covered = Math.max(covered, e.end());
+
+        long size = archive.size();
+        if (covered > size) {
+            entries.clear();
+            position.clear();
+            resetIndex();
+            covered = 0;
+        }
+        if (covered < size) scan(covered);
+    }
+
+    // indexes every complete record from the given offset on
+    // a complete record that cannot be read is skipped, only a trailing partial record is cut off
+    private void scan(long from) throws IOException {
+        long size = archive.size();
+        long offset = from;
+        ByteBuffer header = ByteBuffer.allocate(RECORD_HEADER_SIZE);
+
+        while (offset + RECORD_HEADER_SIZE <= size) {
+            header.clear();
+            readFully(archive, header, offset);
+            header.flip();
+            int length = header.getInt();
+            long createdMillis = header.getLong();
+            if (length < 0) {
+                // no way to find the next record, leave the rest of the file as it is
+                System.err.println("Error reading puzzle archive: bad record length at offset " + offset);
+                return;
+            }
+            if (offset + RECORD_HEADER_SIZE + length > size) break;
+
+            try {
+                puzzleInfo info = puzzleFormat.readInfo(archive.map(FileChannel.MapMode.READ_ONLY, offset + RECORD_HEADER_SIZE, length), createdMillis);
+                String key = fileKey(info.title);
+                addEntry(new Entry(key, offset, length, listed(key, info)), true);
+            } catch (IOException e) {
+                System.err.println("Error reading puzzle archive: skipping record at offset " + offset + ": " + e.getMessage());
+            }
+            offset += RECORD_HEADER_SIZE + length;
+        }
+
+        if (offset < size) archive.truncate(offset);
+    }
+
+    // adds an entry in memory and, if asked, to the index file
+    private void addEntry(Entry e, boolean persist) throws IOException {
+        Integer i = position.get(e.key);
+        if (i == null) {
+            position.put(e.key, entries.size());
+            entries.add(e);
+        } else {
+            entries.set(i, e);
+        }
+        if (!persist) return;
+
+        byte[] key = e.key.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer buf = ByteBuffer.allocate(2 + key.length + 32);
+        buf.putShort((short) key.length).put(key);
+        buf.putLong(e.offset).putInt(e.length);
+        buf.putShort((short) e.info.rows).putShort((short) e.info.cols).putInt(e.info.wordCount);
+        buf.putLong(e.info.createdMillis);
+        buf.flip();
+        writeFully(index, buf, indexEnd);
+        indexEnd += buf.limit();
+
+        // the count is updated last, so an interrupted append leaves the index as it was
+        ByteBuffer count = ByteBuffer.allocate(4);
+        count.putInt(++indexCount).flip();
+        writeFully(index, count, COUNT_OFFSET);
+    }
+
+    private void resetIndex() throws IOException {
+        index.truncate(0);
+        ByteBuffer header = ByteBuffer.allocate(INDEX_HEADER_SIZE);
+        header.putInt(INDEX_MAGIC).putShort((short) INDEX_VERSION).putShort((short) 0).putInt(0).flip();
+        writeFully(index, header, 0);
+        indexEnd = INDEX_HEADER_SIZE;
+        indexCount = 0;
+    }
+
+    // metadata under the title it is listed with, which is the one loadPuzzle takes back
+    private static puzzleInfo listed(String key, puzzleInfo info) {
+        return new puzzleInfo(displayTitle(key), info.rows, info.cols, info.wordCount, info.createdMillis);
+    }
+
+    // title as used in file names and as the archive key
+    static String fileKey(String title) {
+        return title.replaceAll("\\s+", "_");
+    }
+
+    // title as listed to the user
+    static String displayTitle(String key) {
+        return key.replaceAll("_", " ");
+    }
+
+    private static void writeFully(FileChannel ch, ByteBuffer buf, long offset) throws IOException {
+        while (buf.hasRemaining()) offset += ch.write(buf, offset);
+    }
+
+    private static void readFully(FileChannel ch, ByteBuffer buf, long offset) throws IOException {
+        while (buf.hasRemaining()) {
+            int n = ch.read(buf, offset);
+            if (n < 0) throw new EOFException("unexpected end of archive");
+            offset += n;
+        }
+    }
+}
@@ -0,0 +1,245 @@
+package crosswordPuzzle.io;
+
+import java.io.*;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import crosswordPuzzle.core.*;
+
+/**
+ * compact binary format of a saved puzzle, encoded into and decoded from a ByteBuffer
+ *
+ * layout (big endian):
+ *  - header: magic "XWPZ", version (u16), flags (u16, unused), rows (u16), cols (u16),
+ *            word count (i32), placement count (i32)
+ *  - title: string
+ *  - grid: one byte per cell, row by row, '-' for an empty cell
+ *  - string table: per word its id (i32), word (string) and clue (string)
+ *  - placements: fixed width records of word index into the string table (i32), row (u16), col (u16),
+ *                vertical (u8)
+ * strings are a u16 byte length followed by UTF-8 bytes
+ *
+ * files written by the old ObjectOutputStream version start with the serialization magic instead,
+ * `isLegacy` tells them apart
+ */
+class puzzleFormat {
+
+    static final int MAGIC = 0x58575A50; // "XWPZ"
+    static final int VERSION = 1;
+
+    static final int HEADER_SIZE = 20;
+    static final int PLACEMENT_SIZE = 9;
+
+    // first two bytes of every ObjectOutputStream stream
+    private static final short SERIAL_MAGIC = (short) 0xACED;
+
+    private static final int MAX_U16 = 0xFFFF;
+
+    /**
+     * encodes a puzzle into a buffer ready to be written, positioned at its start
+     *
+     * @throws IOException if the puzzle does not fit the format
+     */
+    static ByteBuffer encode(String title, char[][] grid, ArrayList<placedWord> placedWords,
+                             ArrayList<wordKeeper> wordList) throws IOException {
+        int rows = grid.length;
+        int cols = rows == 0 ? 0 : grid[0].length;
+        if (rows > MAX_U16 || cols > MAX_U16) throw new IOException("grid too large: " + rows + " x " + cols);
+
+        // placements refer to their word by its index in the string table
+        IdentityHashMap<wordKeeper, Integer> indexOf = new IdentityHashMap<>();
+        for (int i = 0; i < wordList.size(); i++) indexOf.put(wordList.get(i), i);
+
+        byte[] titleBytes = utf8(title);
+        byte[][] wordBytes = new byte[wordList.size()][];
+        byte[][] clueBytes = new byte[wordList.size()][];
+        int size = HEADER_SIZE + 2 + titleBytes.length + rows * cols + placedWords.size() * PLACEMENT_SIZE;
+        for (int i = 0; i < wordList.size(); i++) {
+            wordBytes[i] = utf8(wordList.get(i).word);
+            clueBytes[i] = utf8(wordList.get(i).clue);
+            size += 4 + 2 + wordBytes[i].length + 2 + clueBytes[i].length;
+        }
+
+        ByteBuffer buf = ByteBuffer.allocate(size);
+        buf.putInt(MAGIC);
+        buf.putShort((short) VERSION);
+        buf.putShort((short) 0);
+        buf.putShort((short) rows);
+        buf.putShort((short) cols);
+        buf.putInt(wordList.size());
+        buf.putInt(placedWords.size());
+        putString(buf, titleBytes);
+
+        for (char[] row : grid) {
+            for (char c : row) {
+                if (c > 0x7F) throw new IOException("grid cell is not ASCII: " + c);
+                buf.put((byte) c);
+            }
+        }
+
+        for (int i = 0; i < wordList.size(); i++) {
+            buf.putInt(wordList.get(i).id);
+            putString(buf, wordBytes[i]);
+            putString(buf, clueBytes[i]);
+        }
+
+        for (placedWord pw : placedWords) {
+            Integer index = indexOf.get(pw.word);
+            if (index == null) throw new IOException("placed word is not in the word list: " + pw.word.word);
+            if (pw.row < 0 || pw.row > MAX_U16 || pw.col < 0 || pw.col > MAX_U16) {
+                throw new IOException("placement outside the grid: " + pw.word.word);
+            }
+            buf.putInt(index);
+            buf.putShort((short) pw.row);
+            buf.putShort((short) pw.col);
+            buf.put((byte) (pw.isVertical ? 1 : 0));
+        }
+
+        buf.flip();
+        return buf;
+    }
+
+    /**
+     * reads a whole file into a buffer positioned at its start
+     */
+    static ByteBuffer readFile(Path file) throws IOException {
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = ch.size();
+            if (size > Integer.MAX_VALUE) throw new IOException("file too large: " + file);
+
+            ByteBuffer buf = ByteBuffer.allocate((int) size);
+            while (buf.hasRemaining()) {
+                if (ch.read(buf) < 0) throw new EOFException("unexpected end of " + file);
+            }
+            buf.flip();
+            return buf;
+        }
+    }
+
+    // true if the buffer holds a puzzle saved with ObjectOutputStream
+    static boolean isLegacy(ByteBuffer buf) {
+        return buf.remaining() >= 2 && buf.getShort(buf.position()) == SERIAL_MAGIC;
+    }
+
+    /**
+     * reads only the header and title of a puzzle in this format, leaves the buffer position unchanged
+     *
+     * @param createdMillis - creation time to report, the format itself does not store it
+     * @throws IOException if the buffer does not hold a puzzle of a supported version
+     */
+    static puzzleInfo readInfo(ByteBuffer buf, long createdMillis) throws IOException {
+        ByteBuffer header = buf.duplicate();
+        try {
+            checkHeader(header);
+            int rows = header.getShort() & MAX_U16;
+            int cols = header.getShort() & MAX_U16;
+            int wordCount = header.getInt();
+            if (wordCount < 0) throw new IOException("bad word count " + wordCount);
+            header.getInt(); // placements
+            return new puzzleInfo(getString(header), rows, cols, wordCount, createdMillis);
+        } catch (BufferUnderflowException e) {
+            throw new EOFException("truncated puzzle file");
+        }
+    }
+
+    // reads magic, version and flags
+    private static void checkHeader(ByteBuffer buf) throws IOException {
+        if (buf.getInt() != MAGIC) throw new IOException("not a puzzle file");
+        int version = buf.getShort() & MAX_U16;
+        if (version != VERSION) throw new IOException("unsupported puzzle file version " + version);
+        buf.getShort(); // flags
+    }
+
+    /**
+     * decodes a whole puzzle in this format
+     *
+     * @throws IOException if the buffer does not hold a puzzle of a supported version
+     */
+    static puzzleSolution decode(ByteBuffer buf) throws IOException {
+        return decode(buf, true);
+    }
+
+    /**
+     * decodes only the placed words with their clues, the grid bytes are skipped without being read
+     *
+     * @throws IOException if the buffer does not hold a puzzle of a supported version
+     */
+    static ArrayList<placedWord> decodeClues(ByteBuffer buf) throws IOException {
+        return decode(buf, false).placedWords;
+    }
+
+    private static puzzleSolution decode(ByteBuffer buf, boolean withGrid) throws IOException {
+        try {
+            checkHeader(buf);
+            int rows = buf.getShort() & MAX_U16;
+            int cols = buf.getShort() & MAX_U16;
+            int wordCount = buf.getInt();
+            int placedCount = buf.getInt();
+            getString(buf); // title, the archive index already carries it
+
+            // every count is checked against the bytes left before anything is allocated for it
+            if ((long) rows * cols > buf.remaining()) throw new EOFException("truncated puzzle file");
+            char[][] grid = null;
+            if (withGrid) {
+                grid = new char[rows][cols];
+                byte[] row = new byte[cols];
+                for (int r = 0; r < rows; r++) {
+                    buf.get(row);
+                    for (int c = 0; c < cols; c++) grid[r][c] = (char) row[c];
+                }
+            } else {
+                buf.position(buf.position() + rows * cols);
+            }
+
+            checkCount(buf, wordCount, 4 + 2 + 2, "word");
+            ArrayList<wordKeeper> wordList = new ArrayList<>(wordCount);
+            for (int i = 0; i < wordCount; i++) {
+                int id = buf.getInt();
+                String word = getString(buf);
+                wordList.add(new wordKeeper(word, id, getString(buf)));
+            }
+
+            checkCount(buf, placedCount, PLACEMENT_SIZE, "placement");
+            ArrayList<placedWord> placedWords = new ArrayList<>(placedCount);
+            for (int i = 0; i < placedCount; i++) {
+                int index = buf.getInt();
+                if (index < 0 || index >= wordCount) throw new IOException("bad word index " + index);
+                int row = buf.getShort() & MAX_U16;
+                int col = buf.getShort() & MAX_U16;
+                placedWords.add(new placedWord(wordList.get(index), row, col, buf.get() != 0));
+            }
+
+            return new puzzleSolution(grid, placedWords, wordList);
+        } catch (BufferUnderflowException e) {
+            throw new EOFException("truncated puzzle file");
+        }
+    }
+
+    // a count must not be negative and its records, at `minSize` bytes each, must fit in what is left
+    private static void checkCount(ByteBuffer buf, int count, int minSize, String what) throws IOException {
+        if (count < 0) throw new IOException("bad " + what + " count " + count);
+        if ((long) count * minSize > buf.remaining()) throw new EOFException("truncated puzzle file");
+    }
+
+    private static byte[] utf8(String s) throws IOException {
+        byte[] bytes = (s == null ? "" : s).getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > MAX_U16) throw new IOException("string too long for the puzzle format");
+        return bytes;
+    }
+
+    private static void putString(ByteBuffer buf, byte[] bytes) {
+        buf.putShort((short) bytes.length);
+        buf.put(bytes);
+    }
+
+    static String getString(ByteBuffer buf) {
+        byte[] bytes = new byte[buf.getShort() & MAX_U16];
+        buf.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,25 @@
+package crosswordPuzzle.io;
+
+/**
+ * metadata of a saved puzzle, available without loading the puzzle itself
+ */
+public class puzzleInfo {
+    public final String title;
+    public final int rows;
+    public final int cols;
+    public final int wordCount;
+    public final long createdMillis;
+
+    puzzleInfo(String title, int rows, int cols, int wordCount, long createdMillis) {
+        this.title = title;
+        this.rows = rows;
+        this.cols = cols;
+        this.wordCount = wordCount;
+        this.createdMillis = createdMillis;
+    }
+
+    @Override
+    public String toString() {
+        return title;
+    }
+}
@@ -1,19 +1,33 @@
 package crosswordPuzzle.io;
 
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import crosswordPuzzle.core.*;
 
 /**
  * handles file input output operations for saving, loading, and listing crossword puzzles
- * generated grid, placedWords, and wordList objects are serialized to a .dat file for saving 
- * reversely, saved files can be deserialized to be loaded and used in the program (specifically for playing/solving) 
+ * generated grid, placedWords, and wordList objects are written in the compact binary format of puzzleFormat
+ * and appended to the puzzle archive (see puzzleArchive), whose index lists and finds puzzles without scanning the folder
+ * reversely, saved puzzles can be read back to be loaded and used in the program (specifically for playing/solving)
+ *
+ * older versions saved one .dat file per puzzle, in either format; every time the archive opens, the .dat files
+ * whose title it does not hold yet are copied into it, so they are listed like any other saved puzzle
  */
 public class puzzleManager {
 
     // Folder where puzzles are saved
     private static final String PUZZLE_FOLDER = "savedPuzzles";
 
+    // opened on first use
+    private static puzzleArchive archive;
+
     static {
         // Create folder if it doesn't exist
         File folder = new File(PUZZLE_FOLDER);
@@ -22,42 +36,132 @@ public class puzzleManager {
         }
     }
 
+    // opens the archive, importing the .dat files it does not know about yet
+    private static synchronized puzzleArchive archive() throws IOException {
+        if (archive == null) {
+            archive = puzzleArchive.open(Paths.get(PUZZLE_FOLDER));
+            importDatFiles(archive);
+        }
+        return archive;
+    }
+
+    // a .dat file whose title is already in the archive is skipped, the archive holds the newer save
+    private static void importDatFiles(puzzleArchive a) throws IOException {
+        File[] files = new File(PUZZLE_FOLDER).listFiles((dir, name) -> name.endsWith(".dat"));
+        if (files == null) return;
+
+        for (File f : files) {
+            String key = f.getName().substring(0, f.getName().length() - ".dat".length());
+            if (a.contains(key)) continue;
+            try {
+                puzzleSolution puzzle = readDatFile(f.toPath());
+                a.append(key, puzzleFormat.encode(puzzleArchive.displayTitle(key), puzzle.grid, puzzle.placedWords,
+                        puzzle.wordList), f.lastModified());
+            } catch (IOException | ClassNotFoundException | ClassCastException e) {
+                System.err.println("Error importing puzzle " + f.getName() + ": " + e.getMessage());
+            }
+        }
+    }
+
     /**
-     * Saves a puzzle (grid + placed words + word list) to a binary file
+     * Saves a puzzle (grid + placed words + word list) to the puzzle archive, replacing a puzzle with the same title
      */
     public static void savePuzzle(String title, char[][] grid, ArrayList<placedWord> placedWords, ArrayList<wordKeeper> wordList) {
 
-        // constructs file path 
-        String fileName = PUZZLE_FOLDER + File.separator + title.replaceAll("\\s+", "_") + ".dat";
-
-        // ObjectOutputStream enables objects to be written to files
-        // writes grid, PlacedWords object list, wordList objectList into the created file path
-        try (ObjectOutputStream oos = new ObjectOutputStream(new FileOutputStream(fileName))) {
-            oos.writeObject(grid);
-            oos.writeObject(placedWords);
-            oos.writeObject(wordList);
-            System.out.println("Puzzle saved successfully as " + fileName);
+        try {
+            storePuzzle(title, grid, placedWords, wordList);
+            System.out.println("Puzzle saved successfully as " + puzzleArchive.displayTitle(puzzleArchive.fileKey(title)));
         } catch (IOException e) {
             System.err.println("Error saving puzzle: " + e.getMessage());
             e.printStackTrace();
         }
     }
 
+    /**
+     * Saves a puzzle like savePuzzle, without printing anything, for callers that report errors themselves
+     * safe to call from several threads at once
+     *
+     * @throws IOException if the puzzle cannot be written
+     */
+    public static void storePuzzle(String title, char[][] grid, ArrayList<placedWord> placedWords, ArrayList<wordKeeper> wordList)
+            throws IOException {
+        // appends grid, string table of words and clues, and placements to the archive
+        ByteBuffer puzzle = puzzleFormat.encode(title, grid, placedWords, wordList);
+        archive().append(puzzleArchive.fileKey(title), puzzle, System.currentTimeMillis());
+    }
+
+    /**
+     * Key a puzzle is saved under; titles with the same key (e.g. "A B" and "A_B") replace each other
+     */
+    public static String puzzleKey(String title) {
+        return puzzleArchive.fileKey(title);
+    }
+
     /**
      * Loads a puzzle from a file given its title
      * @return Object array: [0] -> char[][] grid, [1] -> ArrayList<placedWord>, [2] -> ArrayList<wordKeeper>
      */
     public static Object[] loadPuzzle(String title) {
+        puzzleSolution puzzle = loadSolution(title);
+        return puzzle == null ? null : puzzle.toArray();
+    }
+
+    /**
+     * Loads the whole puzzle given its title: solution grid, placed words and word list
+     * @return the puzzle, or null if it cannot be loaded
+     */
+    public static puzzleSolution loadSolution(String title) {
+        String key = puzzleArchive.fileKey(title);
 
-        String fileName = PUZZLE_FOLDER + File.separator + title.replaceAll("\\s+", "_") + ".dat";
+        try {
+            ByteBuffer buf = archive().read(key);
+            if (buf != null) return puzzleFormat.decode(buf);
 
-        // deserializes saved objects.  must be in order of how it was written/saved
-        try (ObjectInputStream ois = new ObjectInputStream(new FileInputStream(fileName))) {
-            char[][] solutionGrid = (char[][]) ois.readObject();
-            ArrayList<placedWord> placedWordList = (ArrayList<placedWord>) ois.readObject();
-            ArrayList<wordKeeper> wordKeeperList = (ArrayList<wordKeeper>) ois.readObject();
+            // not in the archive, try a .dat file of an older version
+            return readDatFile(datFile(key));
+        } catch (IOException | ClassNotFoundException e) {
+            System.err.println("Error loading puzzle: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Loads only the metadata of a puzzle (title, dimensions, word count), taken from the archive index
+     * @return the metadata, or null if the puzzle cannot be found
+     */
+    public static puzzleInfo loadPuzzleInfo(String title) {
+        String key = puzzleArchive.fileKey(title);
+
+        try {
+            puzzleArchive.Entry e = archive().entry(key);
+            if (e != null) return e.info;
+
+            // a .dat file of an older version has to be read in full
+            File f = datFile(key).toFile();
+            puzzleSolution puzzle = readDatFile(f.toPath());
+            int cols = puzzle.grid.length == 0 ? 0 : puzzle.grid[0].length;
+            return new puzzleInfo(puzzleArchive.displayTitle(key), puzzle.grid.length, cols, puzzle.wordList.size(),
+                    f.lastModified());
+        } catch (IOException | ClassNotFoundException e) {
+            System.err.println("Error loading puzzle: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Loads only the placed words of a puzzle with their clues, e.g. for cluePrinter, without reading the grid
+     * @return the placed words, or null if the puzzle cannot be loaded
+     */
+    public static ArrayList<placedWord> loadClues(String title) {
+        String key = puzzleArchive.fileKey(title);
+
+        try {
+            ByteBuffer buf = archive().read(key);
+            if (buf != null) return puzzleFormat.decodeClues(buf);
 
-            return new Object[]{solutionGrid, placedWordList, wordKeeperList};
+            ByteBuffer file = puzzleFormat.readFile(datFile(key));
+            if (puzzleFormat.isLegacy(file)) return loadLegacy(file).placedWords;
+            return puzzleFormat.decodeClues(file);
         } catch (IOException | ClassNotFoundException e) {
             System.err.println("Error loading puzzle: " + e.getMessage());
             return null;
@@ -65,15 +169,95 @@ public class puzzleManager {
     }
 
     /**
-     * Lists all saved puzzles in the puzzle folder
+     * Writes a single puzzle in the binary format to its own file, outside the archive, e.g. for layoutCache
+     * the file is written next to its target and moved into place, so readers never see half a puzzle
+     *
+     * @throws IOException if the puzzle cannot be written
+     */
+    public static void writePuzzleFile(Path file, String title, char[][] grid, ArrayList<placedWord> placedWords,
+                                       ArrayList<wordKeeper> wordList) throws IOException {
+        ByteBuffer puzzle = puzzleFormat.encode(title, grid, placedWords, wordList);
+        // a temporary file of its own, so writers of the same file never mix their bytes
+        Path tmp = Files.createTempFile(file.toAbsolutePath().getParent(), file.getFileName() + ".", ".tmp");
+        try {
+            try (FileChannel ch = FileChannel.open(tmp, StandardOpenOption.WRITE)) {
+                while (puzzle.hasRemaining()) ch.write(puzzle);
+            }
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    /**
+     * Reads a puzzle written by writePuzzleFile
+     *
+     * @throws IOException if the file cannot be read or does not hold a puzzle in the binary format
+     */
+    public static puzzleSolution readPuzzleFile(Path file) throws IOException {
+        return puzzleFormat.decode(puzzleFormat.readFile(file));
+    }
+
+    private static Path datFile(String key) {
+        return Paths.get(PUZZLE_FOLDER, key + ".dat");
+    }
+
+    // reads a single puzzle file, in the binary format or Java serialization
+    private static puzzleSolution readDatFile(Path file) throws IOException, ClassNotFoundException {
+        ByteBuffer buf = puzzleFormat.readFile(file);
+        if (puzzleFormat.isLegacy(buf)) return loadLegacy(buf);
+        return puzzleFormat.decode(buf);
+    }
+
+    // deserializes a puzzle saved with ObjectOutputStream.  must be in order of how it was written/saved
+    @SuppressWarnings("unchecked")
+    private static puzzleSolution loadLegacy(ByteBuffer buf) throws IOException, ClassNotFoundException {
+        try (ObjectInputStream ois = new ObjectInputStream(
+                new ByteArrayInputStream(buf.array(), buf.position(), buf.remaining()))) {
+            char[][] solutionGrid = (char[][]) ois.readObject();
+            ArrayList<placedWord> placedWordList = (ArrayList<placedWord>) ois.readObject();
+            ArrayList<wordKeeper> wordKeeperList = (ArrayList<wordKeeper>) ois.readObject();
+
+            return new puzzleSolution(solutionGrid, placedWordList, wordKeeperList);
+        }
+    }
+
+    /**
+     * Lists all saved puzzles in the puzzle archive, in order of first save
      */
     public static String[] listSavedPuzzles() {
-        File folder = new File(PUZZLE_FOLDER);
-        String[] files = folder.list((dir, name) -> name.endsWith(".dat"));
-        if (files == null) return new String[0];
-        for (int i = 0; i < files.length; i++) {
-            files[i] = files[i].replaceAll("_", " ").replace(".dat", "");
+        ArrayList<puzzleInfo> all = listPuzzles(0, Integer.MAX_VALUE);
+        String[] titles = new String[all.size()];
+        for (int i = 0; i < titles.length; i++) {
+            titles[i] = all.get(i).title;
+        }
+        return titles;
+    }
+
+    /**
+     * Lists one page of saved puzzles with their metadata, in order of first save
+     *
+     * @param from - index of the first puzzle on the page
+     * @param count - maximum number of puzzles on the page
+     */
+    public static ArrayList<puzzleInfo> listPuzzles(int from, int count) {
+        try {
+            return archive().list(from, count);
+        } catch (IOException e) {
+            System.err.println("Error listing puzzles: " + e.getMessage());
+            return new ArrayList<>();
+        }
+    }
+
+    /**
+     * Number of saved puzzles in the puzzle archive
+     */
+    public static int countSavedPuzzles() {
+        try {
+            return archive().size();
+        } catch (IOException e) {
+            System.err.println("Error listing puzzles: " + e.getMessage());
+            return 0;
         }
-        return files;
     }
 }
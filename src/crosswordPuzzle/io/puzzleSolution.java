@@ -0,0 +1,24 @@
+package crosswordPuzzle.io;
+
+import java.util.ArrayList;
+import crosswordPuzzle.core.*;
+
+/**
+ * a fully loaded puzzle: solution grid, placed words and the word list with clues
+ */
+public class puzzleSolution {
+    public final char[][] grid;
+    public final ArrayList<placedWord> placedWords;
+    public final ArrayList<wordKeeper> wordList;
+
+    puzzleSolution(char[][] grid, ArrayList<placedWord> placedWords, ArrayList<wordKeeper> wordList) {
+        this.grid = grid;
+        this.placedWords = placedWords;
+        this.wordList = wordList;
+    }
+
+    // the layout loadPuzzle has always returned
+    Object[] toArray() {
+        return new Object[]{grid, placedWords, wordList};
+    }
+}
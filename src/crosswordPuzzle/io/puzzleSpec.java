@@ -0,0 +1,26 @@
+package crosswordPuzzle.io;
+
+import java.util.ArrayList;
+
+/**
+ * a puzzle to generate: title plus word/clue pairs, as read by puzzleSpecReader
+ * words are kept as written, checking them is up to the generator
+ */
+public class puzzleSpec {
+    public final String title;
+    public final ArrayList<String> words = new ArrayList<>();
+    public final ArrayList<String> clues = new ArrayList<>();
+
+    // file and line the spec starts at, for error messages
+    public final String source;
+
+    puzzleSpec(String title, String source) {
+        this.title = title;
+        this.source = source;
+    }
+
+    void add(String word, String clue) {
+        words.add(word);
+        clues.add(clue == null ? "" : clue);
+    }
+}
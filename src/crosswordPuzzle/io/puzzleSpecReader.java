@@ -0,0 +1,282 @@
+package crosswordPuzzle.io;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * reads puzzle specs for batch generation from a file or a directory of files
+ *
+ * formats, chosen by file extension:
+ *  - .csv: one word per row as title,word,clue; rows with the same title make one puzzle
+ *          fields may be quoted ("..." with "" for a quote), an optional first row title,word,clue is skipped
+ *  - .jsonl: one puzzle per line as {"title": "...", "words": [{"word": "...", "clue": "..."}, ...]}
+ *
+ * a directory is read file by file in name order, other files are ignored
+ * lines that cannot be read are reported in the errors list and skipped, the rest of the file is still read
+ */
+public class puzzleSpecReader {
+
+    /**
+     * @param input - spec file or directory of spec files
+     * @param errors - receives one message per line that could not be read
+     * @return specs in the order they appear
+     * @throws IOException if a file cannot be read at all
+     */
+    public static ArrayList<puzzleSpec> read(Path input, ArrayList<String> errors) throws IOException {
+        ArrayList<puzzleSpec> specs = new ArrayList<>();
+
+        if (Files.isDirectory(input)) {
+            ArrayList<Path> files = new ArrayList<>();
+            try (Stream<Path> list = Files.list(input)) {
+                list.filter(puzzleSpecReader::isSpecFile).sorted().forEach(files::add);
+            }
+            for (Path f : files) readFile(f, specs, errors);
+        } else {
+            readFile(input, specs, errors);
+        }
+        return specs;
+    }
+
+    private static boolean isSpecFile(Path f) {
+        String name = f.getFileName().toString().toLowerCase();
+        return Files.isRegularFile(f) && (name.endsWith(".csv") || name.endsWith(".jsonl"));
+    }
+
+    private static void readFile(Path f, ArrayList<puzzleSpec> specs, ArrayList<String> errors) throws IOException {
+        List<String> lines = Files.readAllLines(f, StandardCharsets.UTF_8);
+        if (f.getFileName().toString().toLowerCase().endsWith(".csv")) readCsv(f, lines, specs, errors);
+        else readJsonLines(f, lines, specs, errors);
+    }
+
+    private static void readCsv(Path f, List<String> lines, ArrayList<puzzleSpec> specs, ArrayList<String> errors) {
+        LinkedHashMap<String, puzzleSpec> byTitle = new LinkedHashMap<>();
+
+        for (int i = 0; i < lines.size(); i++) {
+            String line = lines.get(i);
+            if (line.trim().isEmpty()) continue;
+            String where = f.getFileName() + ":" + (i + 1);
+
+            ArrayList<String> fields = splitCsv(line);
+            if (fields == null) {
+                errors.add(where + ": unbalanced quotes");
+                continue;
+            }
+            if (i == 0 && fields.size() == 3 && fields.get(0).equalsIgnoreCase("title")
+                    && fields.get(1).equalsIgnoreCase("word") && fields.get(2).equalsIgnoreCase("clue")) {
+                continue;
+            }
+            if (fields.size() < 2 || fields.size() > 3) {
+                errors.add(where + ": expected title,word,clue");
+                continue;
+            }
+
+            String title = fields.get(0).trim();
+            if (title.isEmpty()) {
+                errors.add(where + ": empty title");
+                continue;
+            }
+            puzzleSpec spec = byTitle.computeIfAbsent(title, t -> new puzzleSpec(t, where));
+            spec.add(fields.get(1).trim(), fields.size() == 3 ? fields.get(2).trim() : "");
+        }
+        specs.addAll(byTitle.values());
+    }
+
+    // splits one CSV row, null if a quote is left open
+    private static ArrayList<String> splitCsv(String line) {
+        ArrayList<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) return null;
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private static void readJsonLines(Path f, List<String> lines, ArrayList<puzzleSpec> specs, ArrayList<String> errors) {
+        for (int i = 0; i < lines.size(); i++) {
+            String line = lines.get(i);
+            if (line.trim().isEmpty()) continue;
+            String where = f.getFileName() + ":" + (i + 1);
+
+            try {
+                Object value = new JsonParser(line).parseDocument();
+                if (!(value instanceof Map)) throw new IllegalArgumentException("expected an object");
+                Map<?, ?> obj = (Map<?, ?>) value;
+
+                if (!(obj.get("title") instanceof String) || ((String) obj.get("title")).trim().isEmpty()) {
+                    throw new IllegalArgumentException("missing title");
+                }
+                if (!(obj.get("words") instanceof List)) throw new IllegalArgumentException("missing words");
+
+                puzzleSpec spec = new puzzleSpec(((String) obj.get("title")).trim(), where);
+                for (Object w : (List<?>) obj.get("words")) {
+                    if (!(w instanceof Map) || !(((Map<?, ?>) w).get("word") instanceof String)) {
+                        throw new IllegalArgumentException("every word needs a \"word\" string");
+                    }
+                    Object clue = ((Map<?, ?>) w).get("clue");
+                    spec.add(((String) ((Map<?, ?>) w).get("word")).trim(), clue instanceof String ? ((String) clue).trim() : "");
+                }
+                specs.add(spec);
+            } catch (IllegalArgumentException e) {
+                errors.add(where + ": " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * minimal JSON parser for one line: objects become maps, arrays lists, numbers doubles
+     * malformed input throws IllegalArgumentException
+     */
+    private static class JsonParser {
+        private final String s;
+        private int pos;
+
+        JsonParser(String s) {
+            this.s = s;
+        }
+
+        Object parseDocument() {
+            Object value = parseValue();
+            skipSpace();
+            if (pos != s.length()) throw error("unexpected text after the value");
+            return value;
+        }
+
+        private Object parseValue() {
+            skipSpace();
+            if (pos >= s.length()) throw error("unexpected end of line");
+
+            char c = s.charAt(pos);
+            if (c == '{') return parseObject();
+            if (c == '[') return parseArray();
+            if (c == '"') return parseString();
+            if (s.startsWith("true", pos)) { pos += 4; return Boolean.TRUE; }
+            if (s.startsWith("false", pos)) { pos += 5; return Boolean.FALSE; }
+            if (s.startsWith("null", pos)) { pos += 4; return null; }
+            return parseNumber();
+        }
+
+        private Map<String, Object> parseObject() {
+            Map<String, Object> obj = new LinkedHashMap<>();
+            pos++; // {
+            skipSpace();
+            if (peek() == '}') { pos++; return obj; }
+
+            while (true) {
+                skipSpace();
+                if (peek() != '"') throw error("expected a key");
+                String key = parseString();
+                skipSpace();
+                expect(':');
+                obj.put(key, parseValue());
+                skipSpace();
+                if (peek() == ',') { pos++; continue; }
+                expect('}');
+                return obj;
+            }
+        }
+
+        private List<Object> parseArray() {
+            List<Object> list = new ArrayList<>();
+            pos++; // [
+            skipSpace();
+            if (peek() == ']') { pos++; return list; }
+
+            while (true) {
+                list.add(parseValue());
+                skipSpace();
+                if (peek() == ',') { pos++; continue; }
+                expect(']');
+                return list;
+            }
+        }
+
+        private String parseString() {
+            StringBuilder sb = new StringBuilder();
+            pos++; // opening quote
+            while (pos < s.length()) {
+                char c = s.charAt(pos++);
+                if (c == '"') return sb.toString();
+                if (c != '\\') {
+                    sb.append(c);
+                    continue;
+                }
+                if (pos >= s.length()) break;
+                char e = s.charAt(pos++);
+                switch (e) {
+                    case '"': case '\\': case '/': sb.append(e); break;
+                    case 'b': sb.append('\b'); break;
+                    case 'f': sb.append('\f'); break;
+                    case 'n': sb.append('\n'); break;
+                    case 'r': sb.append('\r'); break;
+                    case 't': sb.append('\t'); break;
+                    case 'u':
+                        if (pos + 4 > s.length()) throw error("bad unicode escape");
+                        try {
+                            sb.append((char) Integer.parseInt(s.substring(pos, pos + 4), 16));
+                        } catch (NumberFormatException ex) {
+                            throw error("bad unicode escape");
+                        }
+                        pos += 4;
+                        break;
+                    default: throw error("bad escape \\" + e);
+                }
+            }
+            throw error("unterminated string");
+        }
+
+        private Double parseNumber() {
+            int start = pos;
+            while (pos < s.length() && "+-0123456789.eE".indexOf(s.charAt(pos)) >= 0) pos++;
+            try {
+                return Double.valueOf(s.substring(start, pos));
+            } catch (NumberFormatException e) {
+                throw error("unexpected character");
+            }
+        }
+
+        private void skipSpace() {
+            while (pos < s.length() && Character.isWhitespace(s.charAt(pos))) pos++;
+        }
+
+        private char peek() {
+            return pos < s.length() ? s.charAt(pos) : '\0';
+        }
+
+        private void expect(char c) {
+            if (peek() != c) throw error("expected '" + c + "'");
+            pos++;
+        }
+
+        private IllegalArgumentException error(String message) {
+            return new IllegalArgumentException(message + " at column " + (pos + 1));
+        }
+    }
+}
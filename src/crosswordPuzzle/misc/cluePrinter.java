@@ -4,9 +4,22 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
 import crosswordPuzzle.core.*;
+import crosswordPuzzle.io.*;
 
 public class cluePrinter {
 
+    /**
+     * prints the clues of a saved puzzle, only the clues are loaded and not the grid
+     */
+    public static void printClues(String title) {
+        ArrayList<placedWord> placedWordList = puzzleManager.loadClues(title);
+        if (placedWordList == null) {
+            System.out.println("Failed to load puzzle.");
+            return;
+        }
+        printClues(placedWordList);
+    }
+
     public static void printClues(ArrayList<placedWord> placedWordList) {
         ArrayList<placedWord> across = new ArrayList<>();
         ArrayList<placedWord> down = new ArrayList<>();
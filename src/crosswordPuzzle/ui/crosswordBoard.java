@@ -0,0 +1,315 @@
+package crosswordPuzzle.ui;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.*;
+
+/**
+ * Painted crossword grid holding the player's letters.
+ *
+ * One component draws every cell and takes all keyboard and mouse input, so a large puzzle costs
+ * a few arrays instead of a text field, document and listener per cell.
+ *
+ * - Entries live in a char[][], 0 for an empty cell
+ * - Only the cells inside the clip are painted, and a change repaints just the cells it touches
+ * - Letters fill the cursor cell and move along the current direction, backspace clears and moves back
+ * - Arrow keys move the cursor, space or clicking the cursor cell switches between across and down
+ */
+class crosswordBoard extends JComponent implements Scrollable {
+    private static final long serialVersionUID = 1L;
+
+    // Puzzle data
+    private final char[][] solutionGrid;
+    private final int[][] cellNum;
+    private final char[][] entries;
+    private final int rows;
+    private final int cols;
+
+    // Cursor
+    private int cursorRow = -1;
+    private int cursorCol = -1;
+    private boolean vertical;
+
+    private EntryListener entryListener;
+
+    private final int cellSize;
+    private final Font letterFont;
+    private final Font numberFont = new Font("Arial", Font.BOLD, 14);
+
+    private static final Color CELL_COLOR = Color.WHITE;
+    private static final Color CURSOR_COLOR = new Color(255, 230, 140);
+    private static final Color LINE_COLOR = Color.GRAY;
+
+    /**
+     * Notified of every entry change, typed or deleted.
+     */
+    interface EntryListener {
+        void entryChanged(int row, int col, char oldLetter, char newLetter);
+    }
+
+    /**
+     * @param solutionGrid the solution, '-' marks a blocked cell
+     * @param cellNum word numbers of the starting cells, 0 elsewhere
+     * @param cellSize width and height of a cell in pixels
+     */
+    crosswordBoard(char[][] solutionGrid, int[][] cellNum, int cellSize) {
+        this.solutionGrid = solutionGrid;
+        this.cellNum = cellNum;
+        this.rows = solutionGrid.length;
+        this.cols = solutionGrid[0].length;
+        this.entries = new char[rows][cols];
+        this.cellSize = cellSize;
+        this.letterFont = new Font("Arial", Font.PLAIN, cellSize / 2);
+
+        setOpaque(true);
+        setBackground(UIManager.getColor("Panel.background"));
+        setFocusable(true);
+        setPreferredSize(new Dimension(cols * cellSize + 1, rows * cellSize + 1));
+
+        addKeyListener(new BoardKeyListener());
+        addMouseListener(new BoardMouseListener());
+        addFocusListener(new FocusAdapter() {
+            @Override
+            public void focusGained(FocusEvent e) {
+                if (cursorRow >= 0) repaintCell(cursorRow, cursorCol);
+            }
+
+            @Override
+            public void focusLost(FocusEvent e) {
+                if (cursorRow >= 0) repaintCell(cursorRow, cursorCol);
+            }
+        });
+        placeCursorOnFirstCell();
+    }
+
+    /**
+     * Returns the letter the player entered in a cell.
+     *
+     * @param row the row of the cell
+     * @param col the column of the cell
+     * @return the uppercase letter, or 0 if the cell is empty
+     */
+    char entry(int row, int col) {
+        return entries[row][col];
+    }
+
+    void setEntryListener(EntryListener listener) {
+        this.entryListener = listener;
+    }
+
+    /**
+     * Checks if a cell position is valid (in bounds and not blocked).
+     *
+     * @param r the row to check
+     * @param c the column to check
+     * @return true if the cell is valid and interactive
+     */
+    boolean isValidCell(int r, int c) {
+        return r >= 0 && r < rows && c >= 0 && c < cols && solutionGrid[r][c] != '-';
+    }
+
+    /**
+     * Stores a letter in a cell, repaints only that cell and tells the entry listener.
+     * Every change to the entries goes through here.
+     *
+     * @param row the row of the cell
+     * @param col the column of the cell
+     * @param letter the uppercase letter, or 0 to clear the cell
+     */
+    private void setEntry(int row, int col, char letter) {
+        char old = entries[row][col];
+        if (old == letter) return;
+        entries[row][col] = letter;
+        repaintCell(row, col);
+        if (entryListener != null) entryListener.entryChanged(row, col, old, letter);
+    }
+
+    /**
+     * Moves the cursor to a cell, repainting the old and new cursor cells.
+     */
+    private void moveCursor(int row, int col) {
+        if (!isValidCell(row, col)) return;
+        int oldRow = cursorRow;
+        int oldCol = cursorCol;
+        cursorRow = row;
+        cursorCol = col;
+        if (oldRow >= 0) repaintCell(oldRow, oldCol);
+        repaintCell(row, col);
+        scrollRectToVisible(cellBounds(row, col));
+    }
+
+    private void placeCursorOnFirstCell() {
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < cols; c++) {
+                if (isValidCell(r, c)) {
+                    cursorRow = r;
+                    cursorCol = c;
+                    return;
+                }
+            }
+        }
+    }
+
+    private void toggleDirection() {
+        vertical = !vertical;
+        repaintCell(cursorRow, cursorCol);
+    }
+
+    // moves the cursor one cell along the current direction, staying put at the end of the word
+    private void step(int delta) {
+        if (vertical) moveCursor(cursorRow + delta, cursorCol);
+        else moveCursor(cursorRow, cursorCol + delta);
+    }
+
+    private void repaintCell(int row, int col) {
+        repaint(cellBounds(row, col));
+    }
+
+    // grown by one pixel so the shared border lines are repainted too
+    private Rectangle cellBounds(int row, int col) {
+        return new Rectangle(col * cellSize, row * cellSize, cellSize + 1, cellSize + 1);
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        Rectangle clip = g.getClipBounds();
+        if (clip == null) clip = new Rectangle(0, 0, getWidth(), getHeight());
+
+        g.setColor(getBackground());
+        g.fillRect(clip.x, clip.y, clip.width, clip.height);
+
+        // only the cells the clip touches
+        int firstRow = Math.max(0, clip.y / cellSize - 1);
+        int lastRow = Math.min(rows - 1, (clip.y + clip.height) / cellSize);
+        int firstCol = Math.max(0, clip.x / cellSize - 1);
+        int lastCol = Math.min(cols - 1, (clip.x + clip.width) / cellSize);
+
+        if (g instanceof Graphics2D) {
+            ((Graphics2D) g).setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING,
+                    RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+        }
+        FontMetrics letterMetrics = g.getFontMetrics(letterFont);
+
+        for (int r = firstRow; r <= lastRow; r++) {
+            for (int c = firstCol; c <= lastCol; c++) {
+                if (isValidCell(r, c)) {
+                    paintCell(g, r, c, letterMetrics);
+                }
+            }
+        }
+    }
+
+    /**
+     * Paints one letter cell: background, border, word number and entered letter.
+     */
+    private void paintCell(Graphics g, int r, int c, FontMetrics letterMetrics) {
+        int x = c * cellSize;
+        int y = r * cellSize;
+        boolean focused = r == cursorRow && c == cursorCol && hasFocus();
+
+        g.setColor(focused ? CURSOR_COLOR : CELL_COLOR);
+        g.fillRect(x, y, cellSize, cellSize);
+        g.setColor(LINE_COLOR);
+        g.drawRect(x, y, cellSize, cellSize);
+
+        // bar along the bottom for across, along the right for down
+        if (focused) {
+            g.setColor(Color.ORANGE);
+            if (vertical) g.fillRect(x + cellSize - 3, y + 1, 3, cellSize - 1);
+            else g.fillRect(x + 1, y + cellSize - 3, cellSize - 1, 3);
+        }
+
+        if (cellNum[r][c] > 0) {
+            g.setColor(Color.BLACK);
+            g.setFont(numberFont);
+            g.drawString(String.valueOf(cellNum[r][c]), x + 2, y + 2 + g.getFontMetrics().getAscent());
+        }
+
+        char letter = entries[r][c];
+        if (letter != 0) {
+            g.setColor(Color.BLACK);
+            g.setFont(letterFont);
+            String s = String.valueOf(letter);
+            int textX = x + (cellSize - letterMetrics.stringWidth(s)) / 2;
+            int textY = y + (cellSize - letterMetrics.getHeight()) / 2 + letterMetrics.getAscent() + cellSize / 10;
+            g.drawString(s, textX, textY);
+        }
+    }
+
+    // Scrollable: one cell per scroll step, a screen minus one cell per block
+    @Override
+    public Dimension getPreferredScrollableViewportSize() {
+        return getPreferredSize();
+    }
+
+    @Override
+    public int getScrollableUnitIncrement(Rectangle visibleRect, int orientation, int direction) {
+        return cellSize;
+    }
+
+    @Override
+    public int getScrollableBlockIncrement(Rectangle visibleRect, int orientation, int direction) {
+        int extent = orientation == SwingConstants.VERTICAL ? visibleRect.height : visibleRect.width;
+        return Math.max(cellSize, extent - cellSize);
+    }
+
+    @Override
+    public boolean getScrollableTracksViewportWidth() {
+        return false;
+    }
+
+    @Override
+    public boolean getScrollableTracksViewportHeight() {
+        return false;
+    }
+
+    /**
+     * Key listener that handles letters, deletion, direction and arrow key navigation for the whole grid.
+     */
+    private class BoardKeyListener extends KeyAdapter {
+        @Override
+        public void keyTyped(KeyEvent e) {
+            if (cursorRow < 0) return;
+            char ch = Character.toUpperCase(e.getKeyChar());
+            if (ch >= 'A' && ch <= 'Z') {
+                setEntry(cursorRow, cursorCol, ch);
+                step(1);
+            }
+        }
+
+        @Override
+        public void keyPressed(KeyEvent e) {
+            if (cursorRow < 0) return;
+            switch (e.getKeyCode()) {
+                case KeyEvent.VK_UP:    moveCursor(cursorRow - 1, cursorCol); break;
+                case KeyEvent.VK_DOWN:  moveCursor(cursorRow + 1, cursorCol); break;
+                case KeyEvent.VK_LEFT:  moveCursor(cursorRow, cursorCol - 1); break;
+                case KeyEvent.VK_RIGHT: moveCursor(cursorRow, cursorCol + 1); break;
+                case KeyEvent.VK_SPACE: toggleDirection(); break;
+                case KeyEvent.VK_DELETE: setEntry(cursorRow, cursorCol, (char) 0); break;
+                case KeyEvent.VK_BACK_SPACE:
+                    // clear the cell, or the one before it when this one is already empty
+                    if (entries[cursorRow][cursorCol] == 0) step(-1);
+                    setEntry(cursorRow, cursorCol, (char) 0);
+                    break;
+                default: return;
+            }
+            e.consume();
+        }
+    }
+
+    /**
+     * Mouse listener that moves the cursor to the clicked cell and switches direction on a second click.
+     */
+    private class BoardMouseListener extends MouseAdapter {
+        @Override
+        public void mousePressed(MouseEvent e) {
+            requestFocusInWindow();
+            int r = e.getY() / cellSize;
+            int c = e.getX() / cellSize;
+            if (!isValidCell(r, c)) return;
+            if (r == cursorRow && c == cursorCol) toggleDirection();
+            else moveCursor(r, c);
+        }
+    }
+}
@@ -1,9 +1,7 @@
 package crosswordPuzzle.ui;
 
 import javax.swing.*;
-import javax.swing.text.*;
 import java.awt.*;
-import java.awt.event.*;
 import java.util.ArrayList;
 import crosswordPuzzle.core.*;
 
@@ -11,11 +9,11 @@ import crosswordPuzzle.core.*;
  * GUI for playing crossword puzzles with arrow key navigation and auto-checking.
  * 
  * Features:
- * - Interactive grid with single-character cells
+ * - Interactive grid painted by a single component (crosswordBoard)
  * - Arrow key navigation between cells
  * - Automatic word numbering
  * - Scrollable clues panel (ACROSS and DOWN)
- * - Solution verification
+ * - Solution verification, with live progress and solved clues greyed out
  */
 public class crosswordGUI extends JFrame {
     // Core data
@@ -23,8 +21,11 @@ public class crosswordGUI extends JFrame {
     private final ArrayList<placedWord> placedWordsList;
     
     // GUI components
-    private JTextField[][] guiGrid;
+    private crosswordBoard board;
+    private JLabel[] clueLabels;
+    private JLabel statusLabel;
     private int[][] cellNum;
+    private solveProgress progress;
     
     // Constants
     private static final int CELL_SIZE = 45;
@@ -48,6 +49,7 @@ public class crosswordGUI extends JFrame {
         buildGUI();
         
         setVisible(true);
+        board.requestFocusInWindow();
     }
 
     /**
@@ -56,8 +58,9 @@ public class crosswordGUI extends JFrame {
     private void initializeDataStructures() {
         int rows = solutionGrid.length;
         int cols = solutionGrid[0].length;
-        this.guiGrid = new JTextField[rows][cols];
         this.cellNum = new int[rows][cols];
+        this.clueLabels = new JLabel[placedWordsList.size()];
+        this.progress = new solveProgress(solutionGrid, placedWordsList);
     }
 
     /**
@@ -85,107 +88,27 @@ public class crosswordGUI extends JFrame {
      * Builds and assembles all GUI components into the frame.
      */
     private void buildGUI() {
-        JPanel gridPanel = createGridPanel();
+        JScrollPane gridPanel = createGridPanel();
         JScrollPane cluesPanel = createCluesPanel();
-        JButton checkButton = createCheckButton();
+        JPanel bottomPanel = createBottomPanel();
         
         add(gridPanel, BorderLayout.CENTER);
         add(cluesPanel, BorderLayout.EAST);
-        add(checkButton, BorderLayout.SOUTH);
+        add(bottomPanel, BorderLayout.SOUTH);
     }
 
     /**
-     * Creates the main crossword grid panel with all cells.
+     * Creates the main crossword grid, one painted component inside a scroll pane.
      * 
-     * @return JPanel containing the complete crossword grid
+     * @return JScrollPane containing the complete crossword grid
      */
-    private JPanel createGridPanel() {
-        int rows = solutionGrid.length;
-        int cols = solutionGrid[0].length;
-        JPanel gridPanel = new JPanel(new GridLayout(rows, cols));
-        
-        for (int r = 0; r < rows; r++) {
-            for (int c = 0; c < cols; c++) {
-                if (solutionGrid[r][c] == '-') {
-                    gridPanel.add(createBlockedCell());
-                } else {
-                    gridPanel.add(createInteractiveCell(r, c));
-                }
-            }
-        }
-        
-        return gridPanel;
-    }
-
-    /**
-     * Creates a blocked (empty) cell that's not part of any word.
-     * 
-     * @return JPanel representing a blocked cell
-     */
-    private JPanel createBlockedCell() {
-        return new JPanel();
-    }
-
-    /**
-     * Creates an interactive cell that can accept user input.
-     * 
-     * @param row the row position of this cell
-     * @param col the column position of this cell
-     * @return JLayeredPane containing the text field and optional word number
-     */
-    private JLayeredPane createInteractiveCell(int row, int col) {
-        JLayeredPane cellPanel = new JLayeredPane();
-        cellPanel.setPreferredSize(new Dimension(CELL_SIZE, CELL_SIZE));
-        cellPanel.setLayout(null);
-        
-        // Add the text input field
-        JTextField textField = createTextField(row, col);
-        cellPanel.add(textField, JLayeredPane.DEFAULT_LAYER);
-        guiGrid[row][col] = textField;
-        
-        // Add word number label if this cell starts a word
-        if (cellNum[row][col] > 0) {
-            JLabel numberLabel = createNumberLabel(cellNum[row][col]);
-            cellPanel.add(numberLabel, JLayeredPane.PALETTE_LAYER);
-            cellPanel.moveToFront(numberLabel);
-        }
-        
-        return cellPanel;
-    }
-
-    /**
-     * Creates a text field for a single cell with input restrictions and navigation.
-     * 
-     * @param row the row position of this cell
-     * @param col the column position of this cell
-     * @return JTextField configured for single-character uppercase input
-     */
-    private JTextField createTextField(int row, int col) {
-        JTextField field = new JTextField();
-        field.setHorizontalAlignment(JTextField.CENTER);
-        field.setBounds(0, 0, CELL_SIZE, CELL_SIZE);
+    private JScrollPane createGridPanel() {
+        board = new crosswordBoard(solutionGrid, cellNum, CELL_SIZE);
+        board.setEntryListener(this::entryChanged);
         
-        // Restrict to single uppercase character
-        ((AbstractDocument) field.getDocument()).setDocumentFilter(new SingleCharDocumentFilter());
-        
-        // Add arrow key navigation
-        field.addKeyListener(new CellNavigationListener(row, col));
-        
-        return field;
-    }
-
-    /**
-     * Creates a label displaying the word number for a cell.
-     * 
-     * @param number the word number to display
-     * @return JLabel positioned in the top-left corner of the cell
-     */
-    private JLabel createNumberLabel(int number) {
-        JLabel label = new JLabel(String.valueOf(number));
-        label.setFont(new Font("Arial", Font.BOLD, 14));
-        label.setForeground(Color.BLACK);
-        label.setBounds(1, 1, 24, 23);
-        return label;
+        JScrollPane scrollPane = new JScrollPane(board);
+        scrollPane.getViewport().setBackground(board.getBackground());
+        return scrollPane;
     }
 
     /**
@@ -233,15 +156,71 @@ public class crosswordGUI extends JFrame {
      * @param isVertical true for DOWN clues, false for ACROSS clues
      */
     private void addCluesForOrientation(JPanel panel, boolean isVertical) {
-        for (placedWord pw : placedWordsList) {
+        for (int i = 0; i < placedWordsList.size(); i++) {
+            placedWord pw = placedWordsList.get(i);
             if (pw.isVertical == isVertical) {
                 JLabel clueLabel = new JLabel(pw.word.id + ". " + pw.word.getClue());
                 clueLabel.setFont(new Font("Arial", Font.PLAIN, 12));
+                clueLabels[i] = clueLabel;
                 panel.add(clueLabel);
             }
         }
     }
 
+    /**
+     * Creates the bottom panel with the progress line and the check button.
+     * 
+     * @return JPanel with the status label above the "Check Puzzle" button
+     */
+    private JPanel createBottomPanel() {
+        JPanel panel = new JPanel(new BorderLayout());
+        statusLabel = new JLabel();
+        statusLabel.setBorder(BorderFactory.createEmptyBorder(3, 5, 3, 5));
+        updateStatus();
+        
+        panel.add(statusLabel, BorderLayout.NORTH);
+        panel.add(createCheckButton(), BorderLayout.SOUTH);
+        return panel;
+    }
+
+    /**
+     * Applies a changed cell to the solve progress and refreshes the status and the clues of the
+     * (at most two) words through that cell.
+     * 
+     * @param row the row of the changed cell
+     * @param col the column of the changed cell
+     * @param oldLetter the letter before the change, 0 for empty
+     * @param newLetter the letter after the change, 0 for empty
+     */
+    private void entryChanged(int row, int col, char oldLetter, char newLetter) {
+        progress.update(row, col, oldLetter, newLetter);
+        updateClue(progress.acrossWordAt(row, col));
+        updateClue(progress.downWordAt(row, col));
+        updateStatus();
+    }
+
+    /**
+     * Greys out the clue of a solved word, restores it otherwise.
+     * 
+     * @param word index of the word in the placed words list, -1 for none
+     */
+    private void updateClue(int word) {
+        if (word < 0 || clueLabels[word] == null) return;
+        clueLabels[word].setForeground(progress.isWordSolved(word) ? Color.GRAY : UIManager.getColor("Label.foreground"));
+    }
+
+    /**
+     * Shows the progress percentage and solved word count, or the solved message.
+     */
+    private void updateStatus() {
+        if (progress.isSolved()) {
+            statusLabel.setText("Solved! All " + progress.wordCount() + " words correct.");
+        } else {
+            statusLabel.setText("Progress: " + progress.percentComplete() + "%   Words solved: "
+                    + progress.solvedWordCount() + " / " + progress.wordCount());
+        }
+    }
+
     /**
      * Creates the "Check Puzzle" button with solution verification logic.
      * 
@@ -271,104 +250,11 @@ public class crosswordGUI extends JFrame {
     }
 
     /**
-     * Checks if all cells have been filled with correct letters.
+     * Checks if all cells have been filled with correct letters, from the running solve progress.
      * 
      * @return true if the puzzle is completely and correctly solved; false otherwise
      */
     private boolean isSolved() {
-        for (int r = 0; r < solutionGrid.length; r++) {
-            for (int c = 0; c < solutionGrid[r].length; c++) {
-                char solutionChar = solutionGrid[r][c];
-                
-                // Skip blocked cells
-                if (solutionChar == '#' || solutionChar == '-') {
-                    continue;
-                }
-                
-                // Check if user input matches solution
-                String input = guiGrid[r][c].getText().trim().toUpperCase();
-                if (input.isEmpty() || input.charAt(0) != solutionChar) {
-                    return false;
-                }
-            }
-        }
-        return true;
-    }
-
-    /**
-     * Document filter that restricts text fields to a single uppercase character.
-     */
-    private class SingleCharDocumentFilter extends DocumentFilter {
-        @Override
-        public void replace(FilterBypass fb, int offset, int length, String text, AttributeSet attrs) 
-                throws BadLocationException {
-            if (text == null) return;
-            
-            String currentText = fb.getDocument().getText(0, fb.getDocument().getLength());
-            int newLength = currentText.length() - length + text.length();
-            
-            if (newLength <= 1) {
-                super.replace(fb, offset, length, text.toUpperCase(), attrs);
-            }
-        }
-
-        @Override
-        public void insertString(FilterBypass fb, int offset, String string, AttributeSet attr) 
-                throws BadLocationException {
-            if (string == null) return;
-            
-            String currentText = fb.getDocument().getText(0, fb.getDocument().getLength());
-            int newLength = currentText.length() + string.length();
-            
-            if (newLength <= 1) {
-                super.insertString(fb, offset, string.toUpperCase(), attr);
-            }
-        }
-    }
-
-    /**
-     * Key listener that handles arrow key navigation between cells.
-     */
-    private class CellNavigationListener extends KeyAdapter {
-        private final int row;
-        private final int col;
-
-        public CellNavigationListener(int row, int col) {
-            this.row = row;
-            this.col = col;
-        }
-
-        @Override
-        public void keyPressed(KeyEvent e) {
-            int newRow = row;
-            int newCol = col;
-            
-            // Calculate new position based on arrow key
-            switch (e.getKeyCode()) {
-                case KeyEvent.VK_UP:    newRow--; break;
-                case KeyEvent.VK_DOWN:  newRow++; break;
-                case KeyEvent.VK_LEFT:  newCol--; break;
-                case KeyEvent.VK_RIGHT: newCol++; break;
-                default: return; // Not an arrow key
-            }
-            
-            // Move focus if the new position is valid
-            if (isValidCell(newRow, newCol)) {
-                guiGrid[newRow][newCol].requestFocus();
-            }
-        }
-
-        /**
-         * Checks if a cell position is valid (in bounds and not blocked).
-         * 
-         * @param r the row to check
-         * @param c the column to check
-         * @return true if the cell is valid and interactive
-         */
-        private boolean isValidCell(int r, int c) {
-            return r >= 0 && r < solutionGrid.length &&
-                   c >= 0 && c < solutionGrid[0].length &&
-                   solutionGrid[r][c] != '-';
-        }
+        return progress.isSolved();
     }
 }
\ No newline at end of file
@@ -0,0 +1,145 @@
+package crosswordPuzzle.ui;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import crosswordPuzzle.core.*;
+
+/**
+ * Running solve state of a puzzle being played.
+ *
+ * Keeps the number of correctly filled cells, the correct letters of every word and a bitmap of
+ * the completed words. Each entry change touches one cell and at most two words (its across and
+ * down word), so it is applied in constant time and the solved state never needs a rescan.
+ */
+class solveProgress {
+    private final char[][] solutionGrid;
+
+    // index into the placed words list of the across/down word covering each cell, -1 for none
+    private final int[][] acrossWord;
+    private final int[][] downWord;
+
+    private final int[] wordLength;
+    private final int[] wordCorrect;
+    private final BitSet solvedWords = new BitSet();
+    private int solvedWordCount;
+
+    private final int letterCells;
+    private int correctCells;
+
+    /**
+     * @param solutionGrid the solution, '-' and '#' mark blocked cells
+     * @param placedWordsList the placed words, words are identified by their index in this list
+     */
+    solveProgress(char[][] solutionGrid, ArrayList<placedWord> placedWordsList) {
+        int rows = solutionGrid.length;
+        int cols = solutionGrid[0].length;
+        this.solutionGrid = solutionGrid;
+        this.acrossWord = new int[rows][cols];
+        this.downWord = new int[rows][cols];
+        this.wordLength = new int[placedWordsList.size()];
+        this.wordCorrect = new int[placedWordsList.size()];
+
+        int cells = 0;
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < cols; c++) {
+                acrossWord[r][c] = -1;
+                downWord[r][c] = -1;
+                if (isLetterCell(r, c)) cells++;
+            }
+        }
+        this.letterCells = cells;
+
+        for (int i = 0; i < placedWordsList.size(); i++) {
+            placedWord pw = placedWordsList.get(i);
+            int len = pw.word.letters.length;
+            wordLength[i] = len;
+            for (int j = 0; j < len; j++) {
+                int r = pw.isVertical ? pw.row + j : pw.row;
+                int c = pw.isVertical ? pw.col : pw.col + j;
+                if (pw.isVertical) downWord[r][c] = i;
+                else acrossWord[r][c] = i;
+            }
+        }
+    }
+
+    /**
+     * Applies one entry change.
+     *
+     * @param row the row of the changed cell
+     * @param col the column of the changed cell
+     * @param oldLetter the letter before the change, 0 for empty
+     * @param newLetter the letter after the change, 0 for empty
+     */
+    void update(int row, int col, char oldLetter, char newLetter) {
+        if (!isLetterCell(row, col)) return;
+        char solutionChar = solutionGrid[row][col];
+        int delta = (newLetter == solutionChar ? 1 : 0) - (oldLetter == solutionChar ? 1 : 0);
+        if (delta == 0) return;
+
+        correctCells += delta;
+        updateWord(acrossWord[row][col], delta);
+        updateWord(downWord[row][col], delta);
+    }
+
+    private void updateWord(int word, int delta) {
+        if (word < 0) return;
+        boolean wasSolved = wordCorrect[word] == wordLength[word];
+        wordCorrect[word] += delta;
+        boolean solved = wordCorrect[word] == wordLength[word];
+        if (solved == wasSolved) return;
+        solvedWords.set(word, solved);
+        solvedWordCount += solved ? 1 : -1;
+    }
+
+    private boolean isLetterCell(int r, int c) {
+        char ch = solutionGrid[r][c];
+        return ch != '-' && ch != '#';
+    }
+
+    /**
+     * @return true if every letter cell holds its correct letter
+     */
+    boolean isSolved() {
+        return correctCells == letterCells;
+    }
+
+    /**
+     * @param word index of the word in the placed words list
+     * @return true if every letter of the word is correct
+     */
+    boolean isWordSolved(int word) {
+        return solvedWords.get(word);
+    }
+
+    /**
+     * @return number of completely correct words
+     */
+    int solvedWordCount() {
+        return solvedWordCount;
+    }
+
+    int wordCount() {
+        return wordLength.length;
+    }
+
+    /**
+     * @return percentage of letter cells filled correctly, 0 to 100
+     */
+    int percentComplete() {
+        return letterCells == 0 ? 100 : (int) (100L * correctCells / letterCells);
+    }
+
+    /**
+     * @return index of the across word covering the cell, -1 if none
+     */
+    int acrossWordAt(int row, int col) {
+        return acrossWord[row][col];
+    }
+
+    /**
+     * @return index of the down word covering the cell, -1 if none
+     */
+    int downWordAt(int row, int col) {
+        return downWord[row][col];
+    }
+}